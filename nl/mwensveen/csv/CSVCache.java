@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Keeps a binary image of parsed csv-files in the cacheDirectory of the CSVConfig, so a file that did not change 
+ * is not parsed again. The image is valid for the path, size and lastModified of the file and the settings of the 
+ * config that change the parsed cells. 
+ * The cells are stored per column, as numbers of the distinct values in a dictionary of the column, with as few 
+ * bytes as that dictionary needs, and with the line number of every row. 
+ * When the image is read, only the dictionaries are decoded: every distinct value becomes one String that is shared 
+ * by all cells with that value. The numbers stay in the image, that is mapped in memory, and a cell is looked up 
+ * when it is used. The rows of the ResultSet are read-only views on the image, so the heap holds the dictionaries 
+ * and not the cells. When the CSVConfig collects statistics, all cells are read once to compute them.
+ * On some platforms (e.g. Windows) an image cannot be replaced while a ResultSet still maps it; the new image is 
+ * then not written.
+ * A cache that cannot be read or written is logged and ignored, the file is then parsed.
+ * 
+ * @author Micha Wensveen
+ */
+class CSVCache {
+	private static final int MAGIC = 0x43535643;
+	private static final int VERSION = 3;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private Logger log = Logger.getLogger(CSVCache.class);
+	private CSVConfig config;
+
+	/**
+	 * @param config CSVConfig with the cacheDirectory.
+	 */
+	CSVCache(CSVConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Read the image of a file.
+	 * 
+	 * @param file the csv-file.
+	 * @return a CSVResultSet with the rows of the file, or null when there is no valid image.
+	 */
+	CSVResultSet read(File file) {
+		File cacheFile = getCacheFile(file);
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer;
+			FileInputStream in = new FileInputStream(cacheFile);
+			try {
+				FileChannel channel = in.getChannel();
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} finally {
+				in.close();
+			}
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !readString(buffer).equals(file.getCanonicalPath())
+					|| buffer.getLong() != file.length() || buffer.getLong() != file.lastModified()
+					|| !readString(buffer).equals(getFingerprint())) {
+				log.debug("Cache of " + file + " is out of date");
+				return null;
+			}
+			List<String> metaData = new ArrayList<String>();
+			for (int i = buffer.getInt(); i > 0; i--) {
+				metaData.add(readString(buffer));
+			}
+			int rowCount = buffer.getInt();
+			int columns = buffer.getInt();
+			int rowLengths = buffer.position();
+			int lineNumbers = rowLengths + rowCount * 4;
+			buffer.position(lineNumbers + rowCount * 4);
+			// one String for a value, also when it is in the dictionary of more columns.
+			Map<String, String> values = new HashMap<String, String>();
+			String[][] dictionaries = new String[columns][];
+			int[] widths = new int[columns];
+			int[] ids = new int[columns];
+			for (int column = 0; column < columns; column++) {
+				String[] dictionary = new String[buffer.getInt()];
+				for (int i = 0; i < dictionary.length; i++) {
+					String value = readString(buffer);
+					String shared = values.get(value);
+					if (shared == null) {
+						values.put(value, value);
+						shared = value;
+					}
+					dictionary[i] = shared;
+				}
+				dictionaries[column] = dictionary;
+				widths[column] = buffer.get();
+				ids[column] = buffer.position();
+				buffer.position(ids[column] + rowCount * widths[column]);
+			}
+			ImageRows rows = new ImageRows(buffer, rowCount, rowLengths, lineNumbers, dictionaries, widths, ids);
+			return createResultSet(metaData, rows);
+		} catch (IOException e) {
+			log.warn("Cannot read the cache of " + file, e);
+		} catch (RuntimeException e) {
+			log.warn("Cannot read the cache of " + file, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Write the image of a parsed file. The image is written to a temporary file that replaces the old image.
+	 * The size and lastModified must be taken before the file was parsed, so a file that changed while it was parsed 
+	 * has an image that is out of date.
+	 * 
+	 * @param file the csv-file.
+	 * @param length the size of the file before it was parsed.
+	 * @param lastModified the lastModified of the file before it was parsed.
+	 * @param resultSet the CSVResultSet with the rows of the file.
+	 */
+	void write(File file, long length, long lastModified, CSVResultSet resultSet) {
+		File cacheFile = getCacheFile(file);
+		File tempFile = null;
+		try {
+			List<String> metaData = ((CSVResultSetMetaData) resultSet.getMetaData()).getMetaDataList();
+			List<List<String>> rows = resultSet.getResult();
+			int columns = 0;
+			for (List<String> row : rows) {
+				columns = Math.max(columns, row.size());
+			}
+			int distinctValues = 0;
+			tempFile = File.createTempFile(file.getName(), ".tmp", cacheFile.getParentFile());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeString(out, file.getCanonicalPath());
+				out.writeLong(length);
+				out.writeLong(lastModified);
+				writeString(out, getFingerprint());
+				out.writeInt(metaData.size());
+				for (String name : metaData) {
+					writeString(out, name);
+				}
+				out.writeInt(rows.size());
+				out.writeInt(columns);
+				for (List<String> row : rows) {
+					out.writeInt(row.size());
+				}
+				for (List<String> row : rows) {
+					out.writeInt(row instanceof CSVLine ? ((CSVLine) row).getLineNumber() : 0);
+				}
+				// a number for every row, also when the row is too short for the column, so a cell can be found directly.
+				int[] columnIds = new int[rows.size()];
+				for (int column = 0; column < columns; column++) {
+					// number the distinct values of the column.
+					Map<String, Integer> ids = new HashMap<String, Integer>();
+					List<String> dictionary = new ArrayList<String>();
+					int count = 0;
+					for (List<String> row : rows) {
+						int id = 0;
+						if (row.size() > column) {
+							String cell = row.get(column);
+							Integer known = ids.get(cell);
+							if (known == null) {
+								known = Integer.valueOf(dictionary.size());
+								ids.put(cell, known);
+								dictionary.add(cell);
+							}
+							id = known.intValue();
+						}
+						columnIds[count++] = id;
+					}
+					out.writeInt(dictionary.size());
+					for (String value : dictionary) {
+						writeString(out, value);
+					}
+					distinctValues += dictionary.size();
+					int maxId = dictionary.size() - 1;
+					int width = maxId < 0x100 ? 1 : maxId < 0x10000 ? 2 : 4;
+					out.writeByte(width);
+					for (int i = 0; i < count; i++) {
+						writeId(out, columnIds[i], width);
+					}
+				}
+			} finally {
+				out.close();
+			}
+			cacheFile.delete();
+			if (!tempFile.renameTo(cacheFile)) {
+				throw new IOException("Cannot rename " + tempFile + " to " + cacheFile);
+			}
+			tempFile = null;
+			if (log.isDebugEnabled()) {
+				log.debug("Cached " + rows.size() + " rows with " + distinctValues + " distinct values in the columns of " + file);
+			}
+		} catch (Exception e) {
+			log.warn("Cannot write the cache of " + file, e);
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Create the CSVResultSet as the CSVParser does.
+	 */
+	private CSVResultSet createResultSet(List<String> metaData, List<List<String>> rows) {
+		CSVResultSet resultSet = new CSVResultSet(config);
+		resultSet.setResult(rows);
+		if (config.isCollectStatistics()) {
+			ColumnStatistics statistics = new ColumnStatistics(config);
+			for (List<String> row : rows) {
+				statistics.add(row);
+			}
+			statistics.setComplete();
+			resultSet.setStatistics(statistics);
+		}
+		resultSet.createMetaData(metaData, metaData.size());
+		resultSet.resetIndex();
+		return resultSet;
+	}
+
+	/**
+	 * @return the file in the cacheDirectory with the image of the csv-file.
+	 */
+	private File getCacheFile(File file) {
+		String path;
+		try {
+			path = file.getCanonicalPath();
+		} catch (IOException e) {
+			path = file.getAbsolutePath();
+		}
+		return new File(config.getCacheDirectory(), file.getName() + "-" + Integer.toHexString(path.hashCode()) + ".csvcache");
+	}
+
+	/**
+	 * @return the settings of the config that change the parsed cells and the columnNames.
+	 */
+	private String getFingerprint() {
+		return config.getSeperator() + "|" + config.isStartWithMetaDataRow() + "|" + config.getColumnNames();
+	}
+
+	private void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	private void writeId(DataOutputStream out, int id, int width) throws IOException {
+		if (width == 1) {
+			out.writeByte(id);
+		} else if (width == 2) {
+			out.writeShort(id);
+		} else {
+			out.writeInt(id);
+		}
+	}
+
+	private static int readId(ByteBuffer buffer, int position, int width) {
+		if (width == 1) {
+			return buffer.get(position) & 0xFF;
+		} else if (width == 2) {
+			return buffer.getShort(position) & 0xFFFF;
+		}
+		return buffer.getInt(position);
+	}
+
+	/**
+	 * The rows of a mapped image. A row is a view that looks up its cells in the image when they are used.
+	 */
+	private static class ImageRows extends AbstractList<List<String>> implements RandomAccess {
+		private final ByteBuffer buffer;
+		private final int rowCount;
+		private final int rowLengths;
+		private final int lineNumbers;
+		private final String[][] dictionaries;
+		private final int[] widths;
+		private final int[] ids;
+
+		/**
+		 * @param buffer the mapped image.
+		 * @param rowCount the number of rows.
+		 * @param rowLengths position of the number of cells of every row.
+		 * @param lineNumbers position of the line number of every row.
+		 * @param dictionaries the distinct values of every column.
+		 * @param widths the number of bytes of the numbers of every column.
+		 * @param ids position of the numbers of every column.
+		 */
+		ImageRows(ByteBuffer buffer, int rowCount, int rowLengths, int lineNumbers, String[][] dictionaries, int[] widths, int[] ids) {
+			this.buffer = buffer;
+			this.rowCount = rowCount;
+			this.rowLengths = rowLengths;
+			this.lineNumbers = lineNumbers;
+			this.dictionaries = dictionaries;
+			this.widths = widths;
+			this.ids = ids;
+		}
+
+		@Override
+		public List<String> get(int row) {
+			if (row < 0 || row >= rowCount) {
+				throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+			}
+			return new ImageRow(row);
+		}
+
+		@Override
+		public int size() {
+			return rowCount;
+		}
+
+		/**
+		 * A row of the image.
+		 */
+		private class ImageRow extends AbstractList<String> implements RandomAccess, CSVLine {
+			private final int row;
+			private final int size;
+
+			ImageRow(int row) {
+				this.row = row;
+				this.size = buffer.getInt(rowLengths + row * 4);
+			}
+
+			@Override
+			public String get(int column) {
+				if (column < 0 || column >= size) {
+					throw new IndexOutOfBoundsException("Column " + column + " of " + size);
+				}
+				return dictionaries[column][readId(buffer, ids[column] + row * widths[column], widths[column])];
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			/**
+			 * @see nl.mwensveen.csv.CSVLine#getLineNumber()
+			 */
+			public int getLineNumber() {
+				return buffer.getInt(lineNumbers + row * 4);
+			}
+
+			/**
+			 * The text is not kept in the image.
+			 * @see nl.mwensveen.csv.CSVLine#getText()
+			 */
+			public String getText() {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Hash index on one or more columns of a CSVResultSet, to position the ResultSet on the rows with a key (see 
+ * CSVResultSet.createIndex() and seek()). 
+ * The index holds no Strings, only row numbers: an open addressing table with the first row of every key and, per 
+ * row, the next row with the same key. The rows of a key are found in the order of the file. 
+ * The rows are numbered like getRow(), starting at 1. 0 means no row. An empty or missing cell is an empty key value.
+ * 
+ * @author Micha Wensveen
+ */
+public class CSVIndex {
+	private final List<List<String>> result;
+	private final int[] columns;
+	private final int[] table;
+	private final int[] nextRows;
+	private final int mask;
+	private int keyCount;
+
+	/**
+	 * Build the index.
+	 * 
+	 * @param result the rows of the ResultSet.
+	 * @param columns the indexes of the key columns, starting at 1.
+	 */
+	CSVIndex(List<List<String>> result, int[] columns) {
+		this.result = result;
+		this.columns = new int[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			this.columns[i] = columns[i] - 1;
+		}
+		int size = result.size();
+		// at most half of the table is used.
+		int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+		table = new int[capacity];
+		nextRows = new int[size];
+		mask = capacity - 1;
+		// add the rows backwards, so every row is put in front of the later rows with the same key.
+		for (int row = size; row > 0; row--) {
+			List<String> cells = result.get(row - 1);
+			int slot = hash(cells) & mask;
+			while (table[slot] != 0 && !sameKey(result.get(table[slot] - 1), cells)) {
+				slot = (slot + 1) & mask;
+			}
+			if (table[slot] == 0) {
+				keyCount++;
+			} else {
+				nextRows[row - 1] = table[slot];
+			}
+			table[slot] = row;
+		}
+	}
+
+	/**
+	 * @param key the values of the key columns.
+	 * @return the first row with the key, or 0 when there is none.
+	 * @throws SQLException when the number of values does not match the number of key columns.
+	 */
+	public int find(String... key) throws SQLException {
+		if (key.length != columns.length) {
+			throw new SQLException("The index has " + columns.length + " key columns, not " + key.length);
+		}
+		int hash = 0;
+		for (String value : key) {
+			hash = 31 * hash + (value == null ? 0 : value.hashCode());
+		}
+		int slot = spread(hash) & mask;
+		while (table[slot] != 0) {
+			List<String> cells = result.get(table[slot] - 1);
+			boolean same = true;
+			for (int i = 0; i < columns.length && same; i++) {
+				same = getCell(cells, columns[i]).equals(key[i] == null ? "" : key[i]);
+			}
+			if (same) {
+				return table[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return 0;
+	}
+
+	/**
+	 * @param row a row with the key.
+	 * @return the next row with the same key, or 0 when there is none.
+	 */
+	public int findNext(int row) {
+		return nextRows[row - 1];
+	}
+
+	/**
+	 * @return the number of distinct keys.
+	 */
+	public int getKeyCount() {
+		return keyCount;
+	}
+
+	private int hash(List<String> cells) {
+		int hash = 0;
+		for (int column : columns) {
+			hash = 31 * hash + getCell(cells, column).hashCode();
+		}
+		return spread(hash);
+	}
+
+	/**
+	 * Mix the high bits of the hash into the low bits that select the slot.
+	 */
+	private int spread(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private boolean sameKey(List<String> cells, List<String> otherCells) {
+		for (int column : columns) {
+			if (!getCell(cells, column).equals(getCell(otherCells, column))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String getCell(List<String> cells, int column) {
+		return column < cells.size() ? cells.get(column) : "";
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Index on a numeric column of a CSVResultSet, to find the rows with a value in a range (see 
+ * CSVResultSet.createRangeIndex() and moveToRow()). 
+ * The rows with a value are kept sorted on the value, as an array of values and an array of row numbers. When the 
+ * column is already sorted in the file, no sort is needed. Rows with an empty or missing cell are not in the index.
+ * The rows are numbered like getRow(), starting at 1. The sorted rows are found by their position, starting at 0:
+ * <pre>
+ * for (int p = index.lowerBound(from); p < index.upperBound(to); p++) {
+ * 	resultSet.moveToRow(index.getRow(p));
+ * }
+ * </pre>
+ * 
+ * @author Micha Wensveen
+ */
+public class CSVRangeIndex {
+	private static final int INSERTION_SORT_SIZE = 16;
+
+	private final double[] values;
+	private final int[] rows;
+
+	/**
+	 * Build the index.
+	 * 
+	 * @param result the rows of the ResultSet.
+	 * @param column the index of the column, starting at 1.
+	 * @param cellConverter converts the cells with the decimalPoint of the config.
+	 * @throws SQLException when a cell is not a number.
+	 */
+	CSVRangeIndex(List<List<String>> result, int column, CellConverter cellConverter) throws SQLException {
+		int count = 0;
+		for (List<String> cells : result) {
+			if (column <= cells.size() && !CellConverter.isNull(cells.get(column - 1))) {
+				count++;
+			}
+		}
+		values = new double[count];
+		rows = new int[count];
+		boolean sorted = true;
+		int position = 0;
+		for (int row = 1; row <= result.size(); row++) {
+			List<String> cells = result.get(row - 1);
+			if (column <= cells.size() && !CellConverter.isNull(cells.get(column - 1))) {
+				try {
+					values[position] = cellConverter.toDouble(cells.get(column - 1));
+				} catch (NumberFormatException e) {
+					throw new SQLException("Column " + column + " of row " + row + " is not a number: " + cells.get(column - 1), e);
+				}
+				rows[position] = row;
+				sorted = sorted && (position == 0 || Double.compare(values[position - 1], values[position]) <= 0);
+				position++;
+			}
+		}
+		if (!sorted) {
+			sort(0, count - 1);
+		}
+	}
+
+	/**
+	 * @return the number of rows with a value.
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @param value
+	 * @return the first position with a value that is not less than the value, size() when there is none.
+	 */
+	public int lowerBound(double value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (Double.compare(values[middle], value) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @param value
+	 * @return the first position with a value that is greater than the value, size() when there is none.
+	 */
+	public int upperBound(double value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (Double.compare(values[middle], value) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @param position
+	 * @return the row at the position.
+	 */
+	public int getRow(int position) {
+		return rows[position];
+	}
+
+	/**
+	 * @param position
+	 * @return the value at the position.
+	 */
+	public double getValue(int position) {
+		return values[position];
+	}
+
+	/**
+	 * Sort the values and rows between low and high (inclusive) on value and row, without creating objects.
+	 */
+	private void sort(int low, int high) {
+		while (high - low >= INSERTION_SORT_SIZE) {
+			int middle = (low + high) >>> 1;
+			// median of three as pivot.
+			if (less(middle, low)) {
+				swap(middle, low);
+			}
+			if (less(high, low)) {
+				swap(high, low);
+			}
+			if (less(high, middle)) {
+				swap(high, middle);
+			}
+			double pivotValue = values[middle];
+			int pivotRow = rows[middle];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (less(values[i], rows[i], pivotValue, pivotRow)) {
+					i++;
+				}
+				while (less(pivotValue, pivotRow, values[j], rows[j])) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+			// sort the smaller part first, continue with the larger part.
+			if (j - low < high - i) {
+				sort(low, j);
+				low = i;
+			} else {
+				sort(i, high);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			for (int j = i; j > low && less(j, j - 1); j--) {
+				swap(j, j - 1);
+			}
+		}
+	}
+
+	private boolean less(int position, int otherPosition) {
+		return less(values[position], rows[position], values[otherPosition], rows[otherPosition]);
+	}
+
+	private boolean less(double value, int row, double otherValue, int otherRow) {
+		int compare = Double.compare(value, otherValue);
+		return compare < 0 || (compare == 0 && row < otherRow);
+	}
+
+	private void swap(int position, int otherPosition) {
+		double value = values[position];
+		values[position] = values[otherPosition];
+		values[otherPosition] = value;
+		int row = rows[position];
+		rows[position] = rows[otherPosition];
+		rows[otherPosition] = row;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.util.ArrayList;
+
+/**
+ * A parsed row, with the number of the line in the file where the row starts and, when kept, the text of the row 
+ * as in the file. A row with a quoted field over more lines has all these lines in its text.
+ * 
+ * @author Micha Wensveen
+ */
+class CSVRow extends ArrayList<String> implements CSVLine {
+	private static final long serialVersionUID = 1L;
+
+	private final int lineNumber;
+	private String text;
+
+	/**
+	 * @param lineNumber the number of the line in the file where the row starts, the first line is 1.
+	 */
+	CSVRow(int lineNumber) {
+		this.lineNumber = lineNumber;
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.CSVLine#getLineNumber()
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.CSVLine#getText()
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @param text the text of the row as in the file.
+	 */
+	void setText(String text) {
+		this.text = text;
+	}
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.text.SimpleDateFormat;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Writes the rows of a ResultSet, e.g. a table of a database, to a csv-file that can be read by the CSVParser with 
+ * the same CSVConfig: the seperator, decimalPoint and datePattern are used, and the columnNames are written as the 
+ * first row when startWithMetaDataRow is set. A value that contains the seperator, a quote or a line break is put 
+ * between quotes, with its quotes doubled. A NULL value is written as an empty field.
+ * The rows are written into one reusable buffer that is written out when it is full, numbers are appended without 
+ * creating Strings.
+ * 
+ * @author Micha Wensveen
+ */
+public class CSVWriter {
+	private static final int DEFAULT_FETCH_SIZE = 10000;
+	private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	private Logger log = Logger.getLogger(CSVWriter.class);
+	private CSVConfig config;
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	private boolean gzip;
+	private String lineSeparator = "\n";
+	private boolean skipMetaDataRow;
+
+	/**
+	 * Construct a CSV writer with the default separator (`,'), decimal point and datePattern("yyyyMMdd").
+	 */
+	public CSVWriter() {
+		this(new CSVConfig());
+	}
+
+	/**
+	 * Construct a CSV writer with a Configuration.
+	 * 
+	 * @param config the CSVConfig to use.
+	 */
+	public CSVWriter(CSVConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Export all rows of a table to a file. The rows are read with the fetchSize.
+	 * 
+	 * @param connection Connection to the database.
+	 * @param tableName the table to export.
+	 * @param file the csv-file to write, it is compressed with gzip when gzip is set or the name ends with ".gz".
+	 * @return the number of rows written.
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	public long export(Connection connection, String tableName, File file) throws SQLException, IOException {
+		return export(connection, tableName, null, file);
+	}
+
+	/**
+	 * Export the rows of a table that match a condition to a file. The rows are read with the fetchSize.
+	 * 
+	 * @param connection Connection to the database.
+	 * @param tableName the table to export.
+	 * @param condition the sql condition of the where clause, or null to export all rows.
+	 * @param file the csv-file to write, it is compressed with gzip when gzip is set or the name ends with ".gz".
+	 * @return the number of rows written.
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	public long export(Connection connection, String tableName, String condition, File file) throws SQLException, IOException {
+		Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			statement.setFetchSize(fetchSize);
+			String query = "SELECT * FROM " + tableName;
+			if (condition != null) {
+				query += " WHERE " + condition;
+			}
+			ResultSet resultSet = statement.executeQuery(query);
+			try {
+				return write(resultSet, file);
+			} finally {
+				resultSet.close();
+			}
+		} finally {
+			statement.close();
+		}
+	}
+
+	/**
+	 * Write the rows of the ResultSet to a file.
+	 * 
+	 * @param resultSet positioned before the first row.
+	 * @param file the csv-file to write, it is compressed with gzip when gzip is set or the name ends with ".gz".
+	 * @return the number of rows written.
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	public long write(ResultSet resultSet, File file) throws SQLException, IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			if (gzip || file.getName().endsWith(".gz")) {
+				out = new GZIPOutputStream(out, 64 * 1024);
+			} else {
+				out = new BufferedOutputStream(out, 64 * 1024);
+			}
+			Writer writer = new OutputStreamWriter(out, "UTF-8");
+			long rows = write(resultSet, writer);
+			writer.close();
+			return rows;
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the rows of the ResultSet to a Writer. The Writer is flushed, not closed.
+	 * 
+	 * @param resultSet positioned before the first row.
+	 * @param writer
+	 * @return the number of rows written.
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	public long write(ResultSet resultSet, Writer writer) throws SQLException, IOException {
+		long start = System.currentTimeMillis();
+		ResultSetMetaData metaData = resultSet.getMetaData();
+		int columns = metaData.getColumnCount();
+		int[] types = new int[columns + 1];
+		for (int i = 1; i <= columns; i++) {
+			types[i] = metaData.getColumnType(i);
+		}
+		StringBuilder buffer = new StringBuilder(bufferSize + 1024);
+		char[] chars = new char[0];
+		SimpleDateFormat dateFormat = new SimpleDateFormat(config.getDatePattern());
+		if (config.isStartWithMetaDataRow() && !skipMetaDataRow) {
+			for (int i = 1; i <= columns; i++) {
+				if (i > 1) {
+					buffer.append(config.getSeperator());
+				}
+				appendText(buffer, metaData.getColumnLabel(i));
+			}
+			buffer.append(lineSeparator);
+		}
+		long rows = 0;
+		while (resultSet.next()) {
+			for (int i = 1; i <= columns; i++) {
+				if (i > 1) {
+					buffer.append(config.getSeperator());
+				}
+				appendValue(buffer, resultSet, i, types[i], dateFormat);
+			}
+			buffer.append(lineSeparator);
+			rows++;
+			if (buffer.length() >= bufferSize) {
+				chars = writeBuffer(buffer, chars, writer);
+			}
+		}
+		writeBuffer(buffer, chars, writer);
+		writer.flush();
+		if (log.isInfoEnabled()) {
+			log.info("Wrote " + rows + " rows in " + (System.currentTimeMillis() - start) + " ms");
+		}
+		return rows;
+	}
+
+	/**
+	 * Write the buffer to the writer, without creating a String, and empty it.
+	 * 
+	 * @return the char array that was used, to be reused for the next time.
+	 */
+	private char[] writeBuffer(StringBuilder buffer, char[] chars, Writer writer) throws IOException {
+		int length = buffer.length();
+		if (chars.length < length) {
+			chars = new char[length];
+		}
+		buffer.getChars(0, length, chars, 0);
+		writer.write(chars, 0, length);
+		buffer.setLength(0);
+		return chars;
+	}
+
+	/**
+	 * Append the value of a column in the format the CSVParser reads it.
+	 */
+	private void appendValue(StringBuilder buffer, ResultSet resultSet, int column, int type, SimpleDateFormat dateFormat) throws SQLException {
+		switch (type) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			long number = resultSet.getLong(column);
+			if (!resultSet.wasNull()) {
+				buffer.append(number);
+			}
+			break;
+		case Types.REAL:
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			double floating = resultSet.getDouble(column);
+			if (!resultSet.wasNull()) {
+				int begin = buffer.length();
+				buffer.append(floating);
+				replaceDecimalPoint(buffer, begin);
+			}
+			break;
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			BigDecimal decimal = resultSet.getBigDecimal(column);
+			if (decimal != null) {
+				int begin = buffer.length();
+				buffer.append(decimal.toPlainString());
+				replaceDecimalPoint(buffer, begin);
+			}
+			break;
+		case Types.DATE:
+			java.sql.Date date = resultSet.getDate(column);
+			if (date != null) {
+				buffer.append(dateFormat.format(date));
+			}
+			break;
+		case Types.BIT:
+		case Types.BOOLEAN:
+			boolean bool = resultSet.getBoolean(column);
+			if (!resultSet.wasNull()) {
+				buffer.append(bool);
+			}
+			break;
+		default:
+			appendText(buffer, resultSet.getString(column));
+		}
+	}
+
+	/**
+	 * Replace the '.' of the number that was appended from index begin by the decimalPoint of the config.
+	 */
+	private void replaceDecimalPoint(StringBuilder buffer, int begin) {
+		char decimalPoint = config.getDecimalPoint();
+		if (decimalPoint == '.') {
+			return;
+		}
+		for (int i = begin; i < buffer.length(); i++) {
+			if (buffer.charAt(i) == '.') {
+				buffer.setCharAt(i, decimalPoint);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Append a text, between quotes when it contains the seperator, a quote or a line break, or starts with a quote.
+	 */
+	private void appendText(StringBuilder buffer, String value) {
+		if (value == null) {
+			return;
+		}
+		char seperator = config.getSeperator();
+		int length = value.length();
+		boolean quote = false;
+		for (int i = 0; i < length && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == seperator || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			buffer.append(value);
+			return;
+		}
+		buffer.append('"');
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				buffer.append('"');
+			}
+			buffer.append(c);
+		}
+		buffer.append('"');
+	}
+
+	/**
+	 * Number of rows the JDBC driver fetches at once when a table is exported.
+	 * Default = 10000
+	 * @param fetchSize the fetchSize to set
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * @return the fetchSize
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Number of characters collected before they are written out.
+	 * Default = 262144
+	 * @param bufferSize the bufferSize to set
+	 */
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * @return the bufferSize
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Indicates that a file is compressed with gzip, also when its name does not end with ".gz".
+	 * Default = false
+	 * @param gzip the gzip to set
+	 */
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	/**
+	 * @return the gzip
+	 */
+	public boolean isGzip() {
+		return gzip;
+	}
+
+	/**
+	 * The characters written after every row.
+	 * Default = "\n"
+	 * @param lineSeparator the lineSeparator to set
+	 */
+	public void setLineSeparator(String lineSeparator) {
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * @return the lineSeparator
+	 */
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	/**
+	 * Do not write the columnNames, even when the CSVConfig startWithMetaDataRow is set. Used when the rows are 
+	 * appended to a file that already has them.
+	 * Default = false
+	 * @param skipMetaDataRow the skipMetaDataRow to set
+	 */
+	public void setSkipMetaDataRow(boolean skipMetaDataRow) {
+		this.skipMetaDataRow = skipMetaDataRow;
+	}
+
+	/**
+	 * @return the skipMetaDataRow
+	 */
+	public boolean isSkipMetaDataRow() {
+		return skipMetaDataRow;
+	}
+}
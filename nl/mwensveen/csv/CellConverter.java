@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+/**
+ * Converts the cells of a csv-file, as found in the file, to numbers and dates with the rules of the CSVConfig
+ * (decimalPoint and datePattern). The CSVResultSet uses it for its getters, and the DbTypes that bind cells directly 
+ * (see nl.mwensveen.csv.db.type.api.CellBinder) use it to get the same values. An empty cell is a NULL value.
+ * A CellConverter can be used by several threads.
+ * 
+ * @author Micha Wensveen
+ */
+public class CellConverter {
+	private final CSVConfig config;
+	// a DateFormat is not thread-safe, every thread (e.g. the converters of the pipeline) gets its own.
+	private final ThreadLocal<SimpleDateFormat> dateFormat = new ThreadLocal<SimpleDateFormat>();
+
+	/**
+	 * @param config the CSVConfig with the decimalPoint and datePattern.
+	 */
+	public CellConverter(CSVConfig config) {
+		super();
+		this.config = config;
+	}
+
+	/**
+	 * @param cell
+	 * @return true when the cell is missing or empty.
+	 */
+	public static boolean isNull(CharSequence cell) {
+		return cell == null || cell.length() == 0;
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as String, null for an empty cell.
+	 */
+	public String toString(CharSequence cell) {
+		return isNull(cell) ? null : cell.toString();
+	}
+
+	/**
+	 * Convert a number to a format that can be used in the number.parse methods.
+	 * I.e. no , or . as grouping and . as decimalpoint.
+	 * @param value
+	 * @return String
+	 */
+	public String normalizeNumber(CharSequence value) {
+		char decimalPoint = config.getDecimalPoint();
+		int length = value.length();
+		int decimalPointIndex = -1;
+		boolean plain = true;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == decimalPoint) {
+				decimalPointIndex = i;
+				break;
+			}
+			if (c == '.' || c == ',') {
+				plain = false;
+			}
+		}
+		if (plain && decimalPointIndex < 0) {
+			// nothing to change, e.g. an integer.
+			return value.toString();
+		}
+		int wholeNumberEnd = decimalPointIndex < 0 ? length : decimalPointIndex;
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < wholeNumberEnd; i++) {
+			char c = value.charAt(i);
+			if (c != '.' && c != ',') {
+				sb.append(c);
+			}
+		}
+		if (decimalPointIndex >= 0 && decimalPointIndex < length - 1) {
+			sb.append('.');
+			sb.append(value, decimalPointIndex + 1, length);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as int, 0 for an empty cell.
+	 */
+	public int toInt(CharSequence cell) {
+		return isNull(cell) ? 0 : Integer.parseInt(normalizeNumber(cell));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as short, 0 for an empty cell.
+	 */
+	public short toShort(CharSequence cell) {
+		return isNull(cell) ? 0 : Short.parseShort(normalizeNumber(cell));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as long, 0 for an empty cell.
+	 */
+	public long toLong(CharSequence cell) {
+		return isNull(cell) ? 0 : Long.parseLong(normalizeNumber(cell));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as double, 0 for an empty cell.
+	 */
+	public double toDouble(CharSequence cell) {
+		return isNull(cell) ? 0 : Double.parseDouble(normalizeNumber(cell));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as float, 0 for an empty cell.
+	 */
+	public float toFloat(CharSequence cell) {
+		return isNull(cell) ? 0 : Float.parseFloat(normalizeNumber(cell));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell as BigDecimal, null for an empty cell.
+	 */
+	public BigDecimal toBigDecimal(CharSequence cell) {
+		return isNull(cell) ? null : BigDecimal.valueOf(Double.parseDouble(normalizeNumber(cell)));
+	}
+
+	/**
+	 * @param cell
+	 * @return the cell parsed with the datePattern, null for an empty cell.
+	 * @throws SQLException when the cell does not match the datePattern.
+	 */
+	public Date toDate(CharSequence cell) throws SQLException {
+		if (isNull(cell)) {
+			return null;
+		}
+		SimpleDateFormat format = dateFormat.get();
+		if (format == null || !format.toPattern().equals(config.getDatePattern())) {
+			// the datePattern can be changed between calls.
+			format = new SimpleDateFormat(config.getDatePattern());
+			dateFormat.set(format);
+		}
+		try {
+			return new Date(format.parse(cell.toString()).getTime());
+		} catch (ParseException e) {
+			throw new SQLException("Error parsing with dateFormat " + format.toPattern(), e);
+		}
+	}
+}
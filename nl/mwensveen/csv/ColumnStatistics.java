@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistics of the columns of a csv-file, collected while the file is parsed (see CSVConfig.setCollectStatistics()):
+ * the maximum length, the number of NULL (empty or missing) values, the minimum and maximum and, for columns that 
+ * only hold numbers, the precision and scale. The CSVResultSetMetaData reports them once the whole file is parsed.
+ * Numbers are recognized with the decimalPoint of the CSVConfig.
+ * 
+ * @author Micha Wensveen
+ */
+public class ColumnStatistics {
+	private final CellConverter converter;
+	private long rowCount;
+	private int columnCount;
+	private boolean complete;
+	private int[] maxLength = new int[0];
+	private long[] valueCount = new long[0];
+	private boolean[] nonNumeric = new boolean[0];
+	private int[] integerDigits = new int[0];
+	private int[] scale = new int[0];
+	private String[] min = new String[0];
+	private String[] max = new String[0];
+	private BigDecimal[] numericMin = new BigDecimal[0];
+	private BigDecimal[] numericMax = new BigDecimal[0];
+
+	/**
+	 * @param config the CSVConfig with the decimalPoint.
+	 */
+	public ColumnStatistics(CSVConfig config) {
+		super();
+		this.converter = new CellConverter(config);
+	}
+
+	/**
+	 * Add the values of a row to the statistics.
+	 * @param row the cells of the row as parsed.
+	 */
+	public void add(List<String> row) {
+		rowCount++;
+		int size = row.size();
+		if (size > columnCount) {
+			grow(size);
+		}
+		for (int i = 0; i < size; i++) {
+			String value = row.get(i);
+			if (value.length() == 0) {
+				continue;
+			}
+			valueCount[i]++;
+			if (value.length() > maxLength[i]) {
+				maxLength[i] = value.length();
+			}
+			if (min[i] == null || value.compareTo(min[i]) < 0) {
+				min[i] = value;
+			}
+			if (max[i] == null || value.compareTo(max[i]) > 0) {
+				max[i] = value;
+			}
+			if (!nonNumeric[i]) {
+				addNumber(i, value);
+			}
+		}
+	}
+
+	/**
+	 * Update the precision, scale, minimum and maximum of a column with a value, or mark the column as not numeric.
+	 */
+	private void addNumber(int i, String value) {
+		String number = converter.normalizeNumber(value);
+		int length = number.length();
+		int start = length > 0 && (number.charAt(0) == '-' || number.charAt(0) == '+') ? 1 : 0;
+		int digits = 0;
+		int wholeDigits = 0;
+		int fractionDigits = 0;
+		boolean fraction = false;
+		boolean leadingZero = true;
+		for (int c = start; c < length; c++) {
+			char ch = number.charAt(c);
+			if (ch == '.' && !fraction) {
+				fraction = true;
+			} else if (ch >= '0' && ch <= '9') {
+				digits++;
+				if (fraction) {
+					fractionDigits++;
+				} else if (ch != '0' || !leadingZero) {
+					leadingZero = false;
+					wholeDigits++;
+				}
+			} else {
+				digits = 0;
+				break;
+			}
+		}
+		if (digits == 0) {
+			nonNumeric[i] = true;
+			return;
+		}
+		integerDigits[i] = Math.max(integerDigits[i], wholeDigits);
+		scale[i] = Math.max(scale[i], fractionDigits);
+		BigDecimal decimal = new BigDecimal(number.charAt(0) == '+' ? number.substring(1) : number);
+		if (numericMin[i] == null || decimal.compareTo(numericMin[i]) < 0) {
+			numericMin[i] = decimal;
+		}
+		if (numericMax[i] == null || decimal.compareTo(numericMax[i]) > 0) {
+			numericMax[i] = decimal;
+		}
+	}
+
+	private void grow(int size) {
+		maxLength = Arrays.copyOf(maxLength, size);
+		valueCount = Arrays.copyOf(valueCount, size);
+		nonNumeric = Arrays.copyOf(nonNumeric, size);
+		integerDigits = Arrays.copyOf(integerDigits, size);
+		scale = Arrays.copyOf(scale, size);
+		min = Arrays.copyOf(min, size);
+		max = Arrays.copyOf(max, size);
+		numericMin = Arrays.copyOf(numericMin, size);
+		numericMax = Arrays.copyOf(numericMax, size);
+		columnCount = size;
+	}
+
+	/**
+	 * Mark the statistics as complete, after the last row of the file was added.
+	 */
+	void setComplete() {
+		complete = true;
+	}
+
+	/**
+	 * @return true when all rows of the file are in the statistics.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * @return the number of rows.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the length of the longest value.
+	 */
+	public int getMaxLength(int column) {
+		return column <= columnCount ? maxLength[column - 1] : 0;
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the number of rows where the column is empty or missing.
+	 */
+	public long getNullCount(int column) {
+		return rowCount - (column <= columnCount ? valueCount[column - 1] : 0);
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return true when the column has values and all of them are numbers.
+	 */
+	public boolean isNumeric(int column) {
+		return column <= columnCount && valueCount[column - 1] > 0 && !nonNumeric[column - 1];
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the number of digits needed for the values of a numeric column (at least 1), 0 for other columns.
+	 */
+	public int getPrecision(int column) {
+		return isNumeric(column) ? Math.max(1, integerDigits[column - 1] + scale[column - 1]) : 0;
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the maximum number of digits after the decimal point of a numeric column, 0 for other columns.
+	 */
+	public int getScale(int column) {
+		return isNumeric(column) ? scale[column - 1] : 0;
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the smallest value, compared as numbers for a numeric column. Null when the column has no values.
+	 */
+	public String getMin(int column) {
+		if (isNumeric(column)) {
+			return numericMin[column - 1].toPlainString();
+		}
+		return column <= columnCount ? min[column - 1] : null;
+	}
+
+	/**
+	 * @param column the column, starting with 1.
+	 * @return the largest value, compared as numbers for a numeric column. Null when the column has no values.
+	 */
+	public String getMax(int column) {
+		if (isNumeric(column)) {
+			return numericMax[column - 1].toPlainString();
+		}
+		return column <= columnCount ? max[column - 1] : null;
+	}
+}
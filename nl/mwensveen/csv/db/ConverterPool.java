@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The convert stage of the pipeline (see DbConfig.setPipelineConverters()). A number of converter threads take 
+ * chunks of rows from a bounded queue, determine the values of the columns with the DbTypes and hand the 
+ * recorded parameters to the insert stage (ParallelInserter). Every chunk is a ResultSet of its own, so 
+ * it is only used by one converter thread. The DbTypes are shared by the converters and must be thread-safe.
+ * 
+ * @author Micha Wensveen
+ */
+class ConverterPool {
+	private static final Chunk END = new Chunk(null, null);
+
+	private final Logger log = Logger.getLogger(ConverterPool.class);
+	private final DbCreationUtil dbCreationUtil;
+	private final ParallelInserter inserter;
+	private final PipelineStatistics statistics;
+	private final BlockingQueue<Chunk> queue;
+	private final List<Thread> converters = new ArrayList<Thread>();
+	private volatile SQLException failure;
+	private boolean finished;
+
+	/**
+	 * Start the converters.
+	 * 
+	 * @param dbCreationUtil that determines the values of a chunk.
+	 * @param inserter the insert stage.
+	 * @param converterCount number of converter threads.
+	 * @param statistics PipelineStatistics
+	 */
+	ConverterPool(DbCreationUtil dbCreationUtil, ParallelInserter inserter, int converterCount, PipelineStatistics statistics) {
+		this.dbCreationUtil = dbCreationUtil;
+		this.inserter = inserter;
+		this.statistics = statistics;
+		queue = new ArrayBlockingQueue<Chunk>(converterCount * 2);
+		for (int i = 0; i < converterCount; i++) {
+			Thread converter = new Thread(new Runnable() {
+				public void run() {
+					work();
+				}
+			}, "DbCreationUtil-converter-" + (i + 1));
+			converter.setDaemon(true);
+			converters.add(converter);
+			converter.start();
+		}
+	}
+
+	/**
+	 * Hand a chunk of rows to the converters. Blocks while all converters are busy.
+	 * 
+	 * @param rows ResultSet with the rows of the chunk, that is not used by the caller anymore.
+	 * @param extraColumnValues recorded values of the extraColumn for every row, or null.
+	 * @return the time in nanoseconds this call waited for the converters.
+	 * @throws SQLException when a converter or insert worker has failed.
+	 */
+	long submit(ResultSet rows, ParameterRecorder extraColumnValues) throws SQLException {
+		long start = System.nanoTime();
+		Chunk chunk = new Chunk(rows, extraColumnValues);
+		try {
+			while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while handing rows to the converters", e);
+		}
+		checkFailure();
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Wait until all chunks are converted and handed to the insert stage.
+	 * 
+	 * @throws SQLException the first failure of a converter.
+	 */
+	void finish() throws SQLException {
+		if (finished) {
+			checkFailure();
+			return;
+		}
+		finished = true;
+		try {
+			for (int i = 0; i < converters.size(); i++) {
+				while (failure == null && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+					// wait for a free place in the queue.
+				}
+			}
+			if (failure != null) {
+				// the converters stop on their own, make sure none is waiting for rows.
+				queue.clear();
+				for (int i = 0; i < converters.size(); i++) {
+					queue.offer(END);
+				}
+			}
+			for (Thread converter : converters) {
+				converter.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the converters", e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Stop the converters because the load failed elsewhere.
+	 * 
+	 * @param cause the reason the load failed.
+	 */
+	void abort(SQLException cause) {
+		synchronized (this) {
+			if (failure == null) {
+				failure = cause;
+			}
+		}
+		try {
+			finish();
+		} catch (SQLException e) {
+			// this is the failure that was just registered, or an earlier one of a converter.
+		}
+	}
+
+	private void checkFailure() throws SQLException {
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Convert chunks until the end is reached or the load failed.
+	 */
+	private void work() {
+		try {
+			while (failure == null) {
+				Chunk chunk = queue.take();
+				if (chunk == END) {
+					break;
+				}
+				long start = System.nanoTime();
+				ParameterRecorder converted = dbCreationUtil.convert(chunk.rows, chunk.extraColumnValues);
+				long converting = System.nanoTime() - start;
+				inserter.submit(converted);
+				long waiting = System.nanoTime() - start - converting;
+				statistics.converted(converted.getRowCount(), converting, waiting);
+			}
+		} catch (SQLException e) {
+			fail(e);
+		} catch (InterruptedException e) {
+			fail(new SQLException("Converter interrupted", e));
+		} catch (RuntimeException e) {
+			fail(new SQLException("Error converting rows", e));
+		}
+	}
+
+	private void fail(SQLException cause) {
+		log.error("Converter " + Thread.currentThread().getName() + " failed", cause);
+		synchronized (this) {
+			if (failure == null) {
+				failure = cause;
+			}
+		}
+	}
+
+	/**
+	 * The rows of a chunk and the values of their extraColumn.
+	 */
+	private static class Chunk {
+		private final ResultSet rows;
+		private final ParameterRecorder extraColumnValues;
+
+		Chunk(ResultSet rows, ParameterRecorder extraColumnValues) {
+			this.rows = rows;
+			this.extraColumnValues = extraColumnValues;
+		}
+	}
+}
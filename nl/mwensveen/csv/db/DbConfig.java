@@ -1,237 +1,865 @@
-/*
- * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
- * All rights reserved.
- *
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- *
- *     * Redistributions of source code must retain the above copyright notice,
- * 	  this list of conditions and the following disclaimer.
- *     * Redistributions in binary form must reproduce the above copyright notice,
- * 	  this list of conditions and the following disclaimer in the documentation
- * 	  and/or other materials provided with the distribution.
- *     * Neither the name of mwensveen.nl nor the names of its contributors may be
- * 	  used to endorse or promote products derived from this software without
- * 	  specific prior written permission.
- *
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
- * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
- * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
- * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
- * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
- * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
- * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
- * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
- * POSSIBILITY OF SUCH DAMAGE.
- */
-package nl.mwensveen.csv.db;
-
-import java.util.HashMap;
-import java.util.Map;
-
-import nl.mwensveen.csv.db.type.api.DbType;
-
-/**
- * This class holds the configuration used by the DbCreationUtil.
- * 
- * @author Micha Wensveen.
- */
-public class DbConfig {
-	private final static String DATABASENAME_DEFAULT = "CSVdb";
-	private final static String TABLENAME_DEFAULT = "csvTable";
-	private boolean createTable;
-	private String dataBaseName;
-	private Map<String, DbType> dataTypes;
-	private DbType extraColumn;
-	private String extraColumnName;
-	private String jdbcUrl = "";
-	private String tableName;
-	private DbConnectionManager dbConnectionManager;
-	private boolean usePreparedStatement;
-	/**
-	 * @return the extraColumn
-	 */
-	public DbType getExtraColumn() {
-		return extraColumn;
-	}
-
-	/**
-	 * @return the jdbcUrl used in the DbCreationUtil.
-	 */
-	public String getJdbcUrl() {
-		return jdbcUrl;
-	}
-
-
-
-	/**
-	 * Boolean to indicate if the table needs te be created.
-	 * @param createTable the createTable to set
-	 */
-	public void setCreateTable(boolean createTable) {
-		this.createTable = createTable;
-	}
-
-	/**
-	 * The name of the database the DbCreationUtil create when using the default jdbcUrl (derby).
-	 * When another jdbcUrl is used (eg connect to Oracle), the database name will be in that jdbcUrl and 
-	 * this variable is ignored. 
-	 * Default = CSVdb
-	 * @param dataBaseName the dataBaseName (String)to set
-	 */
-	public void setDataBaseName(String dataBaseName) {
-		if (dataBaseName != null) {
-			this.dataBaseName = dataBaseName.trim();
-		} else {
-			dataBaseName = null;
-		}
-	}
-
-	/**
-	 * This map holds the datatypes that will be assigned to the column in the table 
-	 * and used to when inserting rows. 
-	 * The key can be:
-	 *  1) the name of the field in the CSVResultSet or 
-	 *  2) the column number (starting with column 1). 
-	 * If for a column neither name or columnnumber is found in the map, the DbCreationUtility will create
-	 * the column as LONGVARCHAR.
-	 * @param dataTypes the dataTypes (Map<String,DbType>)to set.
-	 */
-	public void setDataTypes(Map<String, DbType> dataTypes) {
-		this.dataTypes = dataTypes;
-	}
-
-	/**
-	 * The extraColumn holds a DbType that is used to insert a column that is not in the resultset. 
-	 * It is typically used to create a primairykey. 
-	 * Leave <code>null</code> if not used.
-	 * @see nl.mwensveen.csv.db.type.SequentialPrimaryKey.
-	 * @param extraColumn the extraColumn to set
-	 */
-	public void setExtraColumn(DbType extraColumn) {
-		this.extraColumn = extraColumn;
-	}
-
-	/**
-	 * String identifying the url to use in the DriverManager.getConnection().
-	 * If not given, the utillity will use "jdbc:derby:<databaseName>;create=true". 
-	 * Note: the jdbcUrl must be complete (i.e. with jdbc:).
-	 * @param jdbcUrl the jdbcUrl (String)to set
-	 */
-	public void setJdbcUrl(String jdbcUrl) {
-		if (jdbcUrl != null) {
-			this.jdbcUrl = jdbcUrl.trim();
-		} else {
-			this.jdbcUrl = jdbcUrl;
-		}
-	}
-
-	/**
-	 * String that indicates the name of the table this utility will create (if createTable==true) and
-	 * into which the rows will be inserted.
-	 * Default is csvTable.
-	 * @param tableName the tableName (String)to set
-	 */
-	public void setTableName(String tableName) {
-		if (tableName != null) {
-			this.tableName = tableName.trim();
-		} else {
-			this.tableName = null;
-		}
-	}
-
-	/**
-	 * Check if all properties were set and when necessary set the default values.
-	 */
-	void checkProperties() {
-		if (tableName == null || tableName.trim().length() == 0) {
-			tableName = TABLENAME_DEFAULT;
-		}
-
-		if (dataBaseName == null || dataBaseName.length() == 0) {
-			dataBaseName = DATABASENAME_DEFAULT;
-		}
-
-		if (dataTypes == null) {
-			dataTypes = new HashMap<String, DbType>();
-		}
-
-		if (jdbcUrl == null || jdbcUrl.trim().equals("")) {
-			jdbcUrl = "jdbc:derby:" + dataBaseName + ";create=true";
-		}
-	}
-
-	/**
-	 * @return the dataBaseName
-	 */
-	String getDataBaseName() {
-		return dataBaseName;
-	}
-
-	/**
-	 * @return the dataTypes
-	 */
-	public Map<String, DbType> getDataTypes() {
-		return dataTypes;
-	}
-
-	/**
-	 * @return the tableName
-	 */
-	public String getTableName() {
-		return tableName;
-	}
-
-	/**
-	 * @return the createTable
-	 */
-	boolean isCreateTable() {
-		return createTable;
-	}
-
-	/**
-	 * @param dbConnectionManager the dbConnectionManager to set
-	 */
-	public void setDbConnectionManager(DbConnectionManager dbConnectionManager) {
-		this.dbConnectionManager = dbConnectionManager;
-	}
-
-	/**
-	 * @return the dbConnectionManager
-	 */
-	public DbConnectionManager getDbConnectionManager() {
-		return dbConnectionManager;
-	}
-
-	/**
-	 * Indicates that the insert statements are done with a prepared statement. 
-	 * Otherwise a normal statement is used.
-	 * @param usePreparedStatement the usePreparedStatement to set
-	 */
-	public void setUsePreparedStatement(boolean usePreparedStatement) {
-		this.usePreparedStatement = usePreparedStatement;
-	}
-
-	/**
-	 * @return the usePreparedStatement
-	 */
-	public boolean isUsePreparedStatement() {
-		return usePreparedStatement;
-	}
-
-	/**
-	 * @param extraColumnName the extraColumnName to set
-	 */
-	public void setExtraColumnName(String extraColumnName) {
-		this.extraColumnName = extraColumnName;
-	}
-
-	/**
-	 * @return the extraColumnName
-	 */
-	public String getExtraColumnName() {
-		return extraColumnName;
-	}
-
-}
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import nl.mwensveen.csv.db.loader.DerbyImportLoader;
+import nl.mwensveen.csv.db.loader.H2CsvReadLoader;
+import nl.mwensveen.csv.db.loader.api.BulkLoader;
+import nl.mwensveen.csv.db.partition.HashPartitioner;
+import nl.mwensveen.csv.db.partition.api.Partitioner;
+import nl.mwensveen.csv.db.type.api.DbType;
+
+/**
+ * This class holds the configuration used by the DbCreationUtil.
+ * 
+ * @author Micha Wensveen.
+ */
+public class DbConfig {
+	private final static String DATABASENAME_DEFAULT = "CSVdb";
+	private final static String TABLENAME_DEFAULT = "csvTable";
+	private boolean createTable;
+	private String dataBaseName;
+	private Map<String, DbType> dataTypes;
+	private DbType extraColumn;
+	private String extraColumnName;
+	private String jdbcUrl = "";
+	private String tableName;
+	private DbConnectionManager dbConnectionManager;
+	private boolean usePreparedStatement;
+	private int batchSize;
+	private boolean autoCommit = true;
+	private int commitInterval;
+	private long commitIntervalBytes;
+	private int rowsPerStatement;
+	private int maxStatementLength = 32768;
+	private int parallelWorkers;
+	private int pipelineConverters;
+	private boolean useBulkLoader;
+	private BulkLoader bulkLoader;
+	private List<BulkLoader> bulkLoaders = new ArrayList<BulkLoader>();
+	private boolean deferIndexes;
+	private Map<String, String> indexes = new LinkedHashMap<String, String>();
+	private String[] keyColumns;
+	private String rowHashColumn;
+	private boolean useMerge;
+	private String[] dedupColumns;
+	private DuplicatePolicy duplicatePolicy = DuplicatePolicy.FIRST_WINS;
+	private long dedupMemory = 64L * 1024 * 1024;
+	private File quarantineFile;
+	private String quarantineTable;
+	private int maxRejects;
+	private boolean useStagingTable;
+	private String renameTableStatement;
+	private List<DbConfig> shards = new ArrayList<DbConfig>();
+	private String partitionColumn;
+	private Partitioner partitioner = new HashPartitioner();
+	private String bucketColumn;
+	private String bucketPattern = "yyyy_MM";
+	private int maxOpenBuckets = 16;
+	private boolean sizeColumns;
+
+	public DbConfig() {
+		super();
+		bulkLoaders.add(new DerbyImportLoader());
+		bulkLoaders.add(new H2CsvReadLoader());
+	}
+
+	/**
+	 * @return the extraColumn
+	 */
+	public DbType getExtraColumn() {
+		return extraColumn;
+	}
+
+	/**
+	 * @return the jdbcUrl used in the DbCreationUtil.
+	 */
+	public String getJdbcUrl() {
+		return jdbcUrl;
+	}
+
+
+
+	/**
+	 * Boolean to indicate if the table needs te be created.
+	 * @param createTable the createTable to set
+	 */
+	public void setCreateTable(boolean createTable) {
+		this.createTable = createTable;
+	}
+
+	/**
+	 * The name of the database the DbCreationUtil create when using the default jdbcUrl (derby).
+	 * When another jdbcUrl is used (eg connect to Oracle), the database name will be in that jdbcUrl and 
+	 * this variable is ignored. 
+	 * Default = CSVdb
+	 * @param dataBaseName the dataBaseName (String)to set
+	 */
+	public void setDataBaseName(String dataBaseName) {
+		if (dataBaseName != null) {
+			this.dataBaseName = dataBaseName.trim();
+		} else {
+			dataBaseName = null;
+		}
+	}
+
+	/**
+	 * This map holds the datatypes that will be assigned to the column in the table 
+	 * and used to when inserting rows. 
+	 * The key can be:
+	 *  1) the name of the field in the CSVResultSet or 
+	 *  2) the column number (starting with column 1). 
+	 * If for a column neither name or columnnumber is found in the map, the DbCreationUtility will create
+	 * the column as LONGVARCHAR.
+	 * @param dataTypes the dataTypes (Map<String,DbType>)to set.
+	 */
+	public void setDataTypes(Map<String, DbType> dataTypes) {
+		this.dataTypes = dataTypes;
+	}
+
+	/**
+	 * The extraColumn holds a DbType that is used to insert a column that is not in the resultset. 
+	 * It is typically used to create a primairykey. 
+	 * Leave <code>null</code> if not used.
+	 * @see nl.mwensveen.csv.db.type.SequentialPrimaryKey.
+	 * @param extraColumn the extraColumn to set
+	 */
+	public void setExtraColumn(DbType extraColumn) {
+		this.extraColumn = extraColumn;
+	}
+
+	/**
+	 * String identifying the url to use in the DriverManager.getConnection().
+	 * If not given, the utillity will use "jdbc:derby:<databaseName>;create=true". 
+	 * Note: the jdbcUrl must be complete (i.e. with jdbc:).
+	 * @param jdbcUrl the jdbcUrl (String)to set
+	 */
+	public void setJdbcUrl(String jdbcUrl) {
+		if (jdbcUrl != null) {
+			this.jdbcUrl = jdbcUrl.trim();
+		} else {
+			this.jdbcUrl = jdbcUrl;
+		}
+	}
+
+	/**
+	 * String that indicates the name of the table this utility will create (if createTable==true) and
+	 * into which the rows will be inserted.
+	 * Default is csvTable.
+	 * @param tableName the tableName (String)to set
+	 */
+	public void setTableName(String tableName) {
+		if (tableName != null) {
+			this.tableName = tableName.trim();
+		} else {
+			this.tableName = null;
+		}
+	}
+
+	/**
+	 * Check if all properties were set and when necessary set the default values.
+	 */
+	void checkProperties() {
+		if (tableName == null || tableName.trim().length() == 0) {
+			tableName = TABLENAME_DEFAULT;
+		}
+
+		if (dataBaseName == null || dataBaseName.length() == 0) {
+			dataBaseName = DATABASENAME_DEFAULT;
+		}
+
+		if (dataTypes == null) {
+			dataTypes = new HashMap<String, DbType>();
+		}
+
+		if (jdbcUrl == null || jdbcUrl.trim().equals("")) {
+			jdbcUrl = "jdbc:derby:" + dataBaseName + ";create=true";
+		}
+	}
+
+	/**
+	 * @return the dataBaseName
+	 */
+	String getDataBaseName() {
+		return dataBaseName;
+	}
+
+	/**
+	 * @return the dataTypes
+	 */
+	public Map<String, DbType> getDataTypes() {
+		return dataTypes;
+	}
+
+	/**
+	 * @return the tableName
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * @return the createTable
+	 */
+	boolean isCreateTable() {
+		return createTable;
+	}
+
+	/**
+	 * @param dbConnectionManager the dbConnectionManager to set
+	 */
+	public void setDbConnectionManager(DbConnectionManager dbConnectionManager) {
+		this.dbConnectionManager = dbConnectionManager;
+	}
+
+	/**
+	 * @return the dbConnectionManager
+	 */
+	public DbConnectionManager getDbConnectionManager() {
+		return dbConnectionManager;
+	}
+
+	/**
+	 * Indicates that the insert statements are done with a prepared statement. 
+	 * Otherwise a normal statement is used.
+	 * @param usePreparedStatement the usePreparedStatement to set
+	 */
+	public void setUsePreparedStatement(boolean usePreparedStatement) {
+		this.usePreparedStatement = usePreparedStatement;
+	}
+
+	/**
+	 * @return the usePreparedStatement
+	 */
+	public boolean isUsePreparedStatement() {
+		return usePreparedStatement;
+	}
+
+	/**
+	 * @param extraColumnName the extraColumnName to set
+	 */
+	public void setExtraColumnName(String extraColumnName) {
+		this.extraColumnName = extraColumnName;
+	}
+
+	/**
+	 * @return the extraColumnName
+	 */
+	public String getExtraColumnName() {
+		return extraColumnName;
+	}
+
+	/**
+	 * Number of rows that are sent to the database in one JDBC batch (addBatch/executeBatch).
+	 * A value of 0 or 1 executes every insert on its own. 
+	 * The last, partial, batch is sent when the DbCreationUtil is finished.
+	 * Default = 0
+	 * @param batchSize the batchSize to set
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return the batchSize
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Indicates if the connection is used in autoCommit mode, i.e. every insert is its own transaction.
+	 * When set to false the DbCreationUtil commits every commitInterval rows (or commitIntervalBytes) and 
+	 * once more when it is finished. When an insert fails the rows after the last commit are rolled back.
+	 * Default = true
+	 * @param autoCommit the autoCommit to set
+	 */
+	public void setAutoCommit(boolean autoCommit) {
+		this.autoCommit = autoCommit;
+	}
+
+	/**
+	 * @return the autoCommit
+	 */
+	public boolean isAutoCommit() {
+		return autoCommit;
+	}
+
+	/**
+	 * Number of rows after which the DbCreationUtil commits when autoCommit is false.
+	 * A value of 0 commits only when the DbCreationUtil is finished.
+	 * Default = 0
+	 * @param commitInterval the commitInterval to set
+	 */
+	public void setCommitInterval(int commitInterval) {
+		this.commitInterval = commitInterval;
+	}
+
+	/**
+	 * @return the commitInterval
+	 */
+	public int getCommitInterval() {
+		return commitInterval;
+	}
+
+	/**
+	 * Size of the inserted values (in characters) after which the DbCreationUtil commits when autoCommit is false.
+	 * Can be combined with the commitInterval, the first limit that is reached causes the commit.
+	 * A value of 0 disables this limit.
+	 * Default = 0
+	 * @param commitIntervalBytes the commitIntervalBytes to set
+	 */
+	public void setCommitIntervalBytes(long commitIntervalBytes) {
+		this.commitIntervalBytes = commitIntervalBytes;
+	}
+
+	/**
+	 * @return the commitIntervalBytes
+	 */
+	public long getCommitIntervalBytes() {
+		return commitIntervalBytes;
+	}
+
+	/**
+	 * Number of rows that are inserted with one multi-row statement: insert into table (columns) values (...), (...), ...
+	 * When a preparedStatement is used, the statement has a parameter for every column of every row. 
+	 * A value of 0 or 1 inserts every row with its own statement. When larger than 1 the batchSize is ignored.
+	 * Default = 0
+	 * @param rowsPerStatement the rowsPerStatement to set
+	 */
+	public void setRowsPerStatement(int rowsPerStatement) {
+		this.rowsPerStatement = rowsPerStatement;
+	}
+
+	/**
+	 * @return the rowsPerStatement
+	 */
+	public int getRowsPerStatement() {
+		return rowsPerStatement;
+	}
+
+	/**
+	 * Maximum length (in characters) of a multi-row insert statement. Fewer rows than rowsPerStatement are put in 
+	 * a statement when it would exceed this length, so the statement stays within the limits of the driver.
+	 * Default = 32768
+	 * @param maxStatementLength the maxStatementLength to set
+	 */
+	public void setMaxStatementLength(int maxStatementLength) {
+		this.maxStatementLength = maxStatementLength;
+	}
+
+	/**
+	 * @return the maxStatementLength
+	 */
+	public int getMaxStatementLength() {
+		return maxStatementLength;
+	}
+
+	/**
+	 * Number of worker threads that insert the rows, each with its own connection, PreparedStatement and batch. 
+	 * The DbConnectionManager must give every thread its own connection (the DefaultDbConnectionManager does). 
+	 * The values of the columns (and the extraColumn) are still determined in the order of the ResultSet, 
+	 * the rows are handed to the workers in chunks of batchSize rows (or 100 rows when no batchSize is set).
+	 * When autoCommit is false, every worker commits every commitInterval rows and when it is finished 
+	 * (commitIntervalBytes is not used).
+	 * The workers always use a PreparedStatement, rowsPerStatement is ignored. 
+	 * A value of 0 or 1 inserts all rows on the calling thread.
+	 * Default = 0
+	 * @param parallelWorkers the parallelWorkers to set
+	 */
+	public void setParallelWorkers(int parallelWorkers) {
+		this.parallelWorkers = parallelWorkers;
+	}
+
+	/**
+	 * @return the parallelWorkers
+	 */
+	public int getParallelWorkers() {
+		return parallelWorkers;
+	}
+
+	/**
+	 * Number of converter threads in the pipeline that is used when the CSVParser parses directly to the database.
+	 * The pipeline has three stages, connected by bounded queues: the parser reads the file and hands chunks of rows 
+	 * to the converters, the converters determine the values with the DbTypes and hand them to the insert workers 
+	 * (parallelWorkers, at least 1). The DbTypes are used by several threads at once and must be thread-safe 
+	 * (the extraColumn is only used by the parser thread). The throughput of the stages is available from 
+	 * DbCreationUtil.getStatistics(). A value of 0 does not use the pipeline.
+	 * Default = 0
+	 * @param pipelineConverters the pipelineConverters to set
+	 */
+	public void setPipelineConverters(int pipelineConverters) {
+		this.pipelineConverters = pipelineConverters;
+	}
+
+	/**
+	 * @return the pipelineConverters
+	 */
+	public int getPipelineConverters() {
+		return pipelineConverters;
+	}
+
+	/**
+	 * Indicates that the rows are loaded with a BulkLoader instead of insert statements. The values are still 
+	 * converted by the DbTypes, handed to the loader and loaded when the DbCreationUtil is finished. 
+	 * The loader is the one set with setBulkLoader(), or else the first of the bulkLoaders that supports the jdbcUrl.
+	 * The bulkLoaders are only used when all DbTypes (and the extraColumn) are types of this library, 
+	 * otherwise (or when no loader supports the jdbcUrl) the normal inserts are used.
+	 * When used, batchSize, rowsPerStatement, parallelWorkers, pipelineConverters and the commit intervals are ignored.
+	 * Default = false
+	 * @param useBulkLoader the useBulkLoader to set
+	 */
+	public void setUseBulkLoader(boolean useBulkLoader) {
+		this.useBulkLoader = useBulkLoader;
+	}
+
+	/**
+	 * @return the useBulkLoader
+	 */
+	public boolean isUseBulkLoader() {
+		return useBulkLoader;
+	}
+
+	/**
+	 * The BulkLoader that is used when useBulkLoader is set, regardless of the jdbcUrl.
+	 * Leave <code>null</code> to select one of the bulkLoaders by the jdbcUrl.
+	 * @param bulkLoader the bulkLoader to set
+	 */
+	public void setBulkLoader(BulkLoader bulkLoader) {
+		this.bulkLoader = bulkLoader;
+	}
+
+	/**
+	 * @return the bulkLoader
+	 */
+	public BulkLoader getBulkLoader() {
+		return bulkLoader;
+	}
+
+	/**
+	 * Add a BulkLoader that can be selected by the jdbcUrl. It is tried before the loaders that 
+	 * were added earlier, and before the default ones for Derby and H2.
+	 * @param loader the BulkLoader to add
+	 */
+	public void addBulkLoader(BulkLoader loader) {
+		bulkLoaders.add(0, loader);
+	}
+
+	/**
+	 * @return the BulkLoaders that can be selected by the jdbcUrl, in the order they are tried.
+	 */
+	public List<BulkLoader> getBulkLoaders() {
+		return bulkLoaders;
+	}
+
+	/**
+	 * Indicates that the table is created without its primary key, and that the primary key and the indexes
+	 * are created after all rows are loaded. Building them once is cheaper than maintaining them for every row.
+	 * The primary key column (e.g. of SequentialPrimaryKey) is created NOT NULL and the primary key is added 
+	 * with ALTER TABLE. Only used when createTable is set.
+	 * Default = false
+	 * @param deferIndexes the deferIndexes to set
+	 */
+	public void setDeferIndexes(boolean deferIndexes) {
+		this.deferIndexes = deferIndexes;
+	}
+
+	/**
+	 * @return the deferIndexes
+	 */
+	public boolean isDeferIndexes() {
+		return deferIndexes;
+	}
+
+	/**
+	 * Add an index that is created on the table, right after the table is created or, when deferIndexes is set,
+	 * after all rows are loaded. Only used when createTable is set.
+	 * @param indexName the name of the index.
+	 * @param columns the columns of the index as used in the CREATE INDEX statement, e.g. "name, city DESC".
+	 */
+	public void addIndex(String indexName, String columns) {
+		indexes.put(indexName, columns);
+	}
+
+	/**
+	 * @return the indexes (name and columns) that are created on the table.
+	 */
+	public Map<String, String> getIndexes() {
+		return indexes;
+	}
+
+	/**
+	 * The columns (names as in the file) that identify a row. When set, the rows are not inserted but upserted: 
+	 * a row that exists in the table (same values for the key columns) is updated, a new row is inserted. 
+	 * The rows are applied in chunks of batchSize rows (or 100 when no batchSize is set), with update-then-insert 
+	 * or, when useMerge is set, with a MERGE statement. The extraColumn is only set for inserted rows.
+	 * The key columns should be indexed (see addIndex()) and must not be empty. When a key occurs more than once in 
+	 * the file, the last row with that key is applied.
+	 * When used, rowsPerStatement, parallelWorkers, pipelineConverters and useBulkLoader are ignored.
+	 * Leave <code>null</code> to insert all rows.
+	 * @param keyColumns the keyColumns to set
+	 */
+	public void setKeyColumns(String[] keyColumns) {
+		this.keyColumns = keyColumns;
+	}
+
+	/**
+	 * @return the keyColumns
+	 */
+	public String[] getKeyColumns() {
+		return keyColumns;
+	}
+
+	/**
+	 * Name of a BIGINT column that holds a hash of the values of the row, only used with keyColumns. 
+	 * A row whose hash is the same as the one in the table is not updated. Without useMerge, the stored hashes of 
+	 * the keys of a chunk are looked up with one query, and only the changed and new rows are written. When 
+	 * createTable is set, the column is added to the table.
+	 * Leave <code>null</code> to update every existing row.
+	 * @param rowHashColumn the rowHashColumn to set
+	 */
+	public void setRowHashColumn(String rowHashColumn) {
+		this.rowHashColumn = rowHashColumn;
+	}
+
+	/**
+	 * @return the rowHashColumn
+	 */
+	public String getRowHashColumn() {
+		return rowHashColumn;
+	}
+
+	/**
+	 * Indicates that the rows are upserted with a MERGE INTO ... USING (VALUES ...) statement instead of an update 
+	 * followed by an insert. Only used with keyColumns, and the database must support this form of MERGE.
+	 * Default = false
+	 * @param useMerge the useMerge to set
+	 */
+	public void setUseMerge(boolean useMerge) {
+		this.useMerge = useMerge;
+	}
+
+	/**
+	 * @return the useMerge
+	 */
+	public boolean isUseMerge() {
+		return useMerge;
+	}
+
+	/**
+	 * The columns (names as in the file) of the key that is used to remove duplicate rows from the load. 
+	 * Which of the rows with the same key is kept is determined by the duplicatePolicy, the number of discarded 
+	 * rows is available from DbCreationUtil.getDuplicateCount(). The keys are kept in memory up to dedupMemory, 
+	 * and written to temporary files beyond that. When used, pipelineConverters is ignored.
+	 * Leave <code>null</code> to load all rows.
+	 * @param dedupColumns the dedupColumns to set
+	 */
+	public void setDedupColumns(String[] dedupColumns) {
+		this.dedupColumns = dedupColumns;
+	}
+
+	/**
+	 * @return the dedupColumns
+	 */
+	public String[] getDedupColumns() {
+		return dedupColumns;
+	}
+
+	/**
+	 * Determines which row is kept when the dedupColumns are used. With LAST_WINS the pending rows are sent 
+	 * to the database and the earlier row is deleted (or updated when keyColumns are used) when a duplicate 
+	 * is found; it cannot be used with parallelWorkers, pipelineConverters or useBulkLoader.
+	 * Default = FIRST_WINS
+	 * @param duplicatePolicy the duplicatePolicy to set
+	 */
+	public void setDuplicatePolicy(DuplicatePolicy duplicatePolicy) {
+		this.duplicatePolicy = duplicatePolicy;
+	}
+
+	/**
+	 * @return the duplicatePolicy
+	 */
+	public DuplicatePolicy getDuplicatePolicy() {
+		return duplicatePolicy;
+	}
+
+	/**
+	 * The number of bytes the deduplication may use in memory. A quarter is used by the Bloom filter in front of the 
+	 * keys, the rest by the keys before they are written to disk. The keys on disk are read through memory mapped 
+	 * files, which the operating system keeps in memory outside this budget.
+	 * Default = 64 MB
+	 * @param dedupMemory the dedupMemory to set
+	 */
+	public void setDedupMemory(long dedupMemory) {
+		this.dedupMemory = dedupMemory;
+	}
+
+	/**
+	 * @return the dedupMemory
+	 */
+	public long getDedupMemory() {
+		return dedupMemory;
+	}
+
+	/**
+	 * File to which the rows are appended that cannot be inserted, with the row number and the error. 
+	 * Setting a quarantineFile or quarantineTable makes the load error tolerant: a row that cannot be converted 
+	 * by its DbTypes is rejected, and when a batch fails it is split in halves (each in its own savepoint) until 
+	 * the failing rows are found, which are rejected while the other rows are inserted. 
+	 * In this mode the rows are inserted by the thread that reads the file, so rowsPerStatement, parallelWorkers,
+	 * pipelineConverters and useBulkLoader are ignored; it cannot be used with keyColumns. 
+	 * The connection does not use autoCommit; with autoCommit every batch is committed.
+	 * Leave <code>null</code> to stop the load at the first error.
+	 * @param quarantineFile the quarantineFile to set
+	 */
+	public void setQuarantineFile(File quarantineFile) {
+		this.quarantineFile = quarantineFile;
+	}
+
+	/**
+	 * @return the quarantineFile
+	 */
+	public File getQuarantineFile() {
+		return quarantineFile;
+	}
+
+	/**
+	 * Table into which the rows are inserted that cannot be inserted in the table, with the row number and the 
+	 * error. It has the columns ROW_NUMBER, SQL_STATE, SQL_ERROR and RAW_DATA and is created when createTable is set. 
+	 * See setQuarantineFile() for the error tolerant mode.
+	 * Leave <code>null</code> to stop the load at the first error.
+	 * @param quarantineTable the quarantineTable to set
+	 */
+	public void setQuarantineTable(String quarantineTable) {
+		this.quarantineTable = quarantineTable;
+	}
+
+	/**
+	 * @return the quarantineTable
+	 */
+	public String getQuarantineTable() {
+		return quarantineTable;
+	}
+
+	/**
+	 * @return true when a quarantineFile or quarantineTable is set, and the load is error tolerant.
+	 */
+	boolean isErrorTolerant() {
+		return quarantineFile != null || quarantineTable != null;
+	}
+
+	/**
+	 * The maximum number of rows that may be rejected in the error tolerant mode, the load stops when more 
+	 * rows are rejected. A value of 0 does not limit the number of rejected rows.
+	 * Default = 0
+	 * @param maxRejects the maxRejects to set
+	 */
+	public void setMaxRejects(int maxRejects) {
+		this.maxRejects = maxRejects;
+	}
+
+	/**
+	 * @return the maxRejects
+	 */
+	public int getMaxRejects() {
+		return maxRejects;
+	}
+
+	/**
+	 * Indicates that the rows are loaded into a new staging table (tableName + "_STAGING") without primary key and
+	 * indexes. When all rows are loaded, the primary key and indexes are created and the staging table is renamed to 
+	 * tableName, in the same transaction as renaming the existing table to tableName + "_OLD". The old table is dropped 
+	 * afterwards. Readers of the table see the old rows until the new ones are complete.
+	 * Requires createTable, and cannot be used with keyColumns. A staging or old table that is left behind by a 
+	 * failed load is dropped at the start of the next one. On databases that commit DDL implicitly (e.g. H2, MySQL) 
+	 * the two renames are not atomic.
+	 * Default = false
+	 * @param useStagingTable the useStagingTable to set
+	 */
+	public void setUseStagingTable(boolean useStagingTable) {
+		this.useStagingTable = useStagingTable;
+	}
+
+	/**
+	 * @return the useStagingTable
+	 */
+	public boolean isUseStagingTable() {
+		return useStagingTable;
+	}
+
+	/**
+	 * The statement that renames a table, as java.text.MessageFormat pattern with the current name as {0} and the 
+	 * new name as {1}, e.g. "EXEC sp_rename ''{0}'', ''{1}''". Used when useStagingTable is set.
+	 * Leave <code>null</code> to use RENAME TABLE for Derby and MySQL and ALTER TABLE .. RENAME TO for other 
+	 * databases, by the jdbcUrl.
+	 * @param renameTableStatement the renameTableStatement to set
+	 */
+	public void setRenameTableStatement(String renameTableStatement) {
+		this.renameTableStatement = renameTableStatement;
+	}
+
+	/**
+	 * @return the renameTableStatement
+	 */
+	public String getRenameTableStatement() {
+		return renameTableStatement;
+	}
+
+	/**
+	 * Add a shard for a sharded load. When shards are added, every row is loaded into one of the shards, as 
+	 * determined by the partitioner with the value of the partitionColumn, and this config is only used for the routing.
+	 * The shard config holds the settings of the load into its database (jdbcUrl or dbConnectionManager, tableName, 
+	 * createTable, dataTypes, batchSize, etc). All shards load at the same time, each in its own thread and 
+	 * transaction; when a shard fails the others roll back their uncommitted rows. Give every shard its own extraColumn, 
+	 * or share a BlockSequentialPrimaryKey.
+	 * E.g. several embedded Derby databases: jdbc:derby:memory:shard1;create=true, jdbc:derby:memory:shard2;create=true.
+	 * @param shard the DbConfig of the shard.
+	 */
+	public void addShard(DbConfig shard) {
+		shards.add(shard);
+	}
+
+	/**
+	 * @return the shards, in the order they were added. Empty when the load is not sharded.
+	 */
+	public List<DbConfig> getShards() {
+		return shards;
+	}
+
+	/**
+	 * The column, as named in the file, with the value that determines the shard of a row. Required when shards are added.
+	 * @param partitionColumn the partitionColumn to set
+	 */
+	public void setPartitionColumn(String partitionColumn) {
+		this.partitionColumn = partitionColumn;
+	}
+
+	/**
+	 * @return the partitionColumn
+	 */
+	public String getPartitionColumn() {
+		return partitionColumn;
+	}
+
+	/**
+	 * The function that determines the shard of a row, e.g. a RangePartitioner.
+	 * Default = HashPartitioner
+	 * @param partitioner the partitioner to set
+	 */
+	public void setPartitioner(Partitioner partitioner) {
+		this.partitioner = partitioner;
+	}
+
+	/**
+	 * @return the partitioner
+	 */
+	public Partitioner getPartitioner() {
+		return partitioner;
+	}
+
+	/**
+	 * The date column, as named in the file, that determines the table of a row. When set, every row is inserted 
+	 * into the table tableName + "_" + the date in the bucketPattern, e.g. events_2026_10. The tables are created 
+	 * when their first row arrives (when createTable is set and the table does not exist yet), the rows need not be 
+	 * sorted. The date is read with the datePattern of the CSVConfig.
+	 * The rows are inserted with a PreparedStatement and batch per table, see maxOpenBuckets. Indexes, rowsPerStatement, 
+	 * parallelWorkers, pipelineConverters and useBulkLoader are ignored. Cannot be used with keyColumns, useStagingTable, 
+	 * the error tolerant mode or DuplicatePolicy.LAST_WINS.
+	 * @param bucketColumn the bucketColumn to set
+	 */
+	public void setBucketColumn(String bucketColumn) {
+		this.bucketColumn = bucketColumn;
+	}
+
+	/**
+	 * @return the bucketColumn
+	 */
+	public String getBucketColumn() {
+		return bucketColumn;
+	}
+
+	/**
+	 * The java.text.SimpleDateFormat pattern of the table suffix of a bucket, e.g. "yyyy_MM_dd" for a table per day.
+	 * Default = "yyyy_MM" (a table per month)
+	 * @param bucketPattern the bucketPattern to set
+	 */
+	public void setBucketPattern(String bucketPattern) {
+		this.bucketPattern = bucketPattern;
+	}
+
+	/**
+	 * @return the bucketPattern
+	 */
+	public String getBucketPattern() {
+		return bucketPattern;
+	}
+
+	/**
+	 * The maximum number of tables with an open PreparedStatement when the bucketColumn is used. When a row arrives for 
+	 * another table, the batch of the least recently used table is executed and its statement is closed.
+	 * Default = 16
+	 * @param maxOpenBuckets the maxOpenBuckets to set
+	 */
+	public void setMaxOpenBuckets(int maxOpenBuckets) {
+		this.maxOpenBuckets = maxOpenBuckets;
+	}
+
+	/**
+	 * @return the maxOpenBuckets
+	 */
+	public int getMaxOpenBuckets() {
+		return maxOpenBuckets;
+	}
+
+	/**
+	 * Indicates that the VARCHAR, CHAR and DECIMAL columns, and the columns without a DbType, are created with the 
+	 * size of their longest value, as reported by the columnDisplaySize, precision and scale of the ResultSetMetaData.
+	 * For a csv-file this requires CSVConfig.setCollectStatistics(true) and a ResultSet of the whole file, i.e. 
+	 * CSVParser.parse() followed by DbCreationUtil.createDB(); parseToDb() creates the table before the sizes are known.
+	 * Default = false
+	 * @param sizeColumns the sizeColumns to set
+	 */
+	public void setSizeColumns(boolean sizeColumns) {
+		this.sizeColumns = sizeColumns;
+	}
+
+	/**
+	 * @return the sizeColumns
+	 */
+	public boolean isSizeColumns() {
+		return sizeColumns;
+	}
+
+}
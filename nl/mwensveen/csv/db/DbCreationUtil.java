@@ -1,365 +1,1847 @@
-/*
- * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
- * All rights reserved.
- *
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- *
- *     * Redistributions of source code must retain the above copyright notice,
- * 	  this list of conditions and the following disclaimer.
- *     * Redistributions in binary form must reproduce the above copyright notice,
- * 	  this list of conditions and the following disclaimer in the documentation
- * 	  and/or other materials provided with the distribution.
- *     * Neither the name of mwensveen.nl nor the names of its contributors may be
- * 	  used to endorse or promote products derived from this software without
- * 	  specific prior written permission.
- *
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
- * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
- * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
- * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
- * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
- * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
- * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
- * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
- * POSSIBILITY OF SUCH DAMAGE.
- */
-package nl.mwensveen.csv.db;
-
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
-import java.sql.SQLException;
-import java.sql.Statement;
-
-import org.apache.log4j.Logger;
-
-import nl.mwensveen.csv.CSVParser;
-import nl.mwensveen.csv.db.type.LongVarcharDbType;
-import nl.mwensveen.csv.db.type.api.DbType;
-
-/**
- * This utility will put the ResultSet (of the CSVParser) into a database. 
- * This way, the CSV file cannot only be processed once in a sequential order,
- * but can also be used to query. Default DB is the Apache Derby 10.4.1.3.
- * 
- * @author Micha Wensveen.
- */
-public class DbCreationUtil {
-	private Logger log = Logger.getLogger(DbCreationUtil.class);
-	private DbConfig config;
-	private Statement st;
-	private PreparedStatement preparedStatement;
-
-	public DbCreationUtil() {
-		this(new DbConfig());
-	}
-
-	public DbCreationUtil(DbConfig config) {
-		super();
-		this.config = config;
-		if (config.getDbConnectionManager() == null) {
-			// use the default one
-			config.setDbConnectionManager(new DefaultDbConnectionManager());
-		}
-		config.getDbConnectionManager().setConfig(config);
-	}
-
-	/**
-	 * Create the database for the given resultset
-	 * 
-	 * @param resultset CSVResultSet from the CSVParser.
-	 * @return The jdbcUrl that was used to get the connection from the DriverManager.
-	 * @throws ClassNotFoundException
-	 * @throws SQLException.
-	 */
-	public String createDB(ResultSet resultset) throws SQLException, ClassNotFoundException {
-		try {
-			init(resultset.getMetaData());
-			processResultSet(resultset);
-		} finally {
-			finish();
-		}
-		return config.getJdbcUrl();
-	}
-
-	/**
-	 * Process all records in the ResultSet to rows in the DB.
-	 * 
-	 * @param resultset
-	 * @throws SQLException
-	 */
-	public void processResultSet(ResultSet resultset) throws SQLException {
-		while (resultset.next()) {
-			if (config.isUsePreparedStatement()) {
-				insertWithPreparedStatement(resultset);
-			} else {
-				insertWithStatement(resultset);
-			}
-		}
-	}
-
-	/**
-	 * Insert a row into the database using a normal statement.
-	 * @param resultset
-	 * @throws SQLException
-	 */
-	private void insertWithStatement(ResultSet resultset) throws SQLException {
-		String insertStatement = makeInsertStatement(resultset);
-		if (log.isDebugEnabled()) {
-			log.debug("Inserting: " + insertStatement);
-		}
-		st.execute(insertStatement);
-	}
-
-	/**
-	 * Initialise the connection and create the table is necessary.
-	 * 
-	 * @param resultSetMetaData
-	 * @throws SQLException
-	 */
-	public void init(ResultSetMetaData resultSetMetaData) throws SQLException {
-		config.checkProperties();
-
-		if (config.isCreateTable()) {
-			st = config.getDbConnectionManager().getConnection().createStatement();
-			String creatTableStatement = makeCreateTableStatement(resultSetMetaData);
-			if (log.isDebugEnabled()) {
-				log.debug("Creation statement: " + creatTableStatement);
-			}
-			st.execute(creatTableStatement);
-		} else if (!config.isUsePreparedStatement()) {
-			st = config.getDbConnectionManager().getConnection().createStatement();
-		}
-	}
-
-	/**
-	 * Finish the creation of the table.
-	 * 
-	 * @throws SQLException
-	 */
-	public void finish() throws SQLException {
-		if (st != null) {
-			st.close();
-		}
-		config.getDbConnectionManager().close();
-	}
-
-	/**
-	 * Create the statement-string that will insert one row into the table.
-	 * 
-	 * @param resultset
-	 * @return String
-	 * @throws SQLException
-	 */
-	private String makeInsertStatement(ResultSet resultset) throws SQLException {
-		ResultSetMetaData metaData = resultset.getMetaData();
-
-		StringBuilder is = new StringBuilder();
-		is.append("insert into ");
-		is.append(config.getTableName());
-		is.append(" (");
-		
-
-		// logic here for setting column names from header values
-		int count = metaData.getColumnCount();
-		boolean firstColumn = true;
-		
-		if (config.getExtraColumn() != null) {
-			is.append(config.getExtraColumnName());
-			firstColumn = false;
-		}
-		for (int i = 1; i <= count; i++) {
-			if (!firstColumn) {
-				is.append(", ");
-			} else {
-				firstColumn = false;
-			}
-			is.append(metaData.getColumnName(i));
-		}
-		
-		is.append(") values (");
-
-		firstColumn = true;
-		if (config.getExtraColumn() != null) {
-			is.append(config.getExtraColumn().getInsertValue(0, resultset));
-			firstColumn = false;
-		}
-
-		count = metaData.getColumnCount();
-		for (int i = 1; i <= count; i++) {
-			if (!firstColumn) {
-				is.append(", ");
-			} else {
-				firstColumn = false;
-			}
-			DbType dataType = getDataType(i, metaData);
-			String cellValue = dataType.getInsertValue(i, resultset);
-			is.append(cellValue);
-		}
-		is.append(")");
-		return is.toString();
-	}
-
-	/**
-	 * Use a preparedStatement to create the new row in the database.
-	 * 
-	 * @param resultSet
-	 * @throws SQLException
-	 */
-	private void insertWithPreparedStatement(ResultSet resultSet) throws SQLException {
-		if (preparedStatement == null) {
-			makePreparedStatement(resultSet.getMetaData());
-		}
-		ResultSetMetaData metaData = resultSet.getMetaData();
-		int j = 0;
-		if (config.getExtraColumn() != null) {
-			config.getExtraColumn().insertIntoPreparedStatement(preparedStatement, 1, resultSet, j);
-			j++;
-		}
-		for (int i = 1; i <= metaData.getColumnCount(); i++) {
-			DbType type = getDataType(i, metaData);
-			type.insertIntoPreparedStatement(preparedStatement, i + j, resultSet, i);
-		}
-		preparedStatement.execute();
-	}
-
-	/**
-	 * Create the preparedStatement.
-	 * 
-	 * @param metaData
-	 * @throws SQLException
-	 */
-	private void makePreparedStatement(ResultSetMetaData metaData) throws SQLException {
-		StringBuilder ps = new StringBuilder();
-
-		ps.append("insert into ");
-		ps.append(config.getTableName());
-		ps.append(" (");
-		
-		// logic here for setting column names from header values
-		int count = metaData.getColumnCount();
-		boolean firstColumn = true;
-		
-		if (config.getExtraColumn() != null) {
-			ps.append(config.getExtraColumnName());
-			firstColumn = false;
-		}
-		for (int i = 1; i <= count; i++) {
-			if (!firstColumn) {
-				ps.append(", ");
-			} else {
-				firstColumn = false;
-			}
-			ps.append(metaData.getColumnName(i));
-		}
-
-		ps.append(") values (");
-
-		firstColumn = true;
-		if (config.getExtraColumn() != null) {
-			ps.append("?");
-			firstColumn = false;
-		}
-
-		count = metaData.getColumnCount();
-		for (int i = 1; i <= count; i++) {
-			if (!firstColumn) {
-				ps.append(", ");
-			} else {
-				firstColumn = false;
-			}
-			ps.append(" ?");
-		}
-		ps.append(")");
-
-		preparedStatement = config.getDbConnectionManager().getConnection().prepareStatement(ps.toString());
-	}
-
-	/**
-	 * Create the statement that will create the database Table.
-	 * 
-	 * @param metaData ResultSetMetaData
-	 * @return String in the form CREATE TABLE table-Name( {Simple-column-Name DataType[ , {Simple-column-Name DataType ] * )
-	 * @throws SQLException
-	 */
-	private String makeCreateTableStatement(ResultSetMetaData metaData) throws SQLException {
-		// create table statement
-		StringBuilder ct = new StringBuilder();
-		ct.append("CREATE TABLE ");
-		ct.append(config.getTableName());
-		ct.append("(");
-		boolean firstColumn = true;
-		if (config.getExtraColumn() != null) {
-			ct.append(config.getExtraColumnName());
-			ct.append(" ");
-			ct.append(config.getExtraColumn().getSqlType());
-			firstColumn = false;
-		}
-		//		ResultSetMetaData metaData = resultset.getMetaData();
-		for (int i = 1; i <= metaData.getColumnCount(); i++) {
-			if (!firstColumn) {
-				ct.append(", ");
-			} else {
-				firstColumn = false;
-			}
-			String colName = getColumnName(metaData, i);
-			DbType dataType = getDataType(i, metaData);
-			ct.append(colName);
-			ct.append(" ");
-			ct.append(dataType.getSqlType());
-		}
-		ct.append(")");
-		return ct.toString();
-	}
-
-	/**
-	 * Determine the columnName based on the MetaData.
-	 * 
-	 * @param metaData
-	 * @param i
-	 * @return String
-	 * @throws SQLException
-	 */
-	private String getColumnName(ResultSetMetaData metaData, int i) throws SQLException {
-		String name = metaData.getColumnName(i);
-		name = name.replace(' ', '_');
-		return name;
-	}
-
-	/**
-	 * Get the DataType to use based on the index i.
-	 * 
-	 * @param i
-	 * @param metaData
-	 * @return
-	 * @throws SQLException
-	 */
-	private DbType getDataType(int i, ResultSetMetaData metaData) throws SQLException {
-		String colName = metaData.getColumnName(i);
-		DbType dataType = config.getDataTypes().get(colName);
-		if (dataType == null) {
-			dataType = config.getDataTypes().get(Integer.toString(i));
-			if (dataType == null) {
-				dataType = new LongVarcharDbType();
-			}
-		}
-		return dataType;
-	}
-
-	/**
-	 * @param config the config to set
-	 */
-	public void setConfig(DbConfig config) {
-		this.config = config;
-	}
-
-	/**
-	 * @return the config
-	 */
-	public DbConfig getConfig() {
-		return config;
-	}
-
-}
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import nl.mwensveen.csv.CSVParser;
+import nl.mwensveen.csv.CSVResultSet;
+import nl.mwensveen.csv.CellConverter;
+import nl.mwensveen.csv.db.loader.api.BulkLoader;
+import nl.mwensveen.csv.db.type.CharDbType;
+import nl.mwensveen.csv.db.type.DecimalDbType;
+import nl.mwensveen.csv.db.type.LongVarcharDbType;
+import nl.mwensveen.csv.db.type.NumericDbType;
+import nl.mwensveen.csv.db.type.VarcharDbType;
+import nl.mwensveen.csv.db.type.api.AppendingDbType;
+import nl.mwensveen.csv.db.type.api.CellBinder;
+import nl.mwensveen.csv.db.type.api.DbType;
+
+/**
+ * This utility will put the ResultSet (of the CSVParser) into a database. 
+ * This way, the CSV file cannot only be processed once in a sequential order,
+ * but can also be used to query. Default DB is the Apache Derby 10.4.1.3.
+ * 
+ * @author Micha Wensveen.
+ */
+public class DbCreationUtil {
+	private static final String PRIMARY_KEY = "PRIMARY KEY";
+	private static final String STAGING_SUFFIX = "_STAGING";
+	private static final String OLD_SUFFIX = "_OLD";
+	/** Largest sizes (of Derby) used when the columns are sized by the statistics. */
+	private static final int MAX_VARCHAR_LENGTH = 32672;
+	private static final int MAX_CHAR_LENGTH = 254;
+	private static final int MAX_DECIMAL_PRECISION = 31;
+	private Logger log = Logger.getLogger(DbCreationUtil.class);
+	private DbConfig config;
+	private Statement st;
+	private PreparedStatement preparedStatement;
+	/** DbType for every column in the ResultSet, resolved once in init(). Index 0 holds column 1. */
+	private DbType[] columnTypes;
+	/** The columnTypes that can append their value to the insert statement, null for the others. */
+	private AppendingDbType[] appendingTypes;
+	/** The columnTypes that can bind the cells of a CSVResultSet directly, null for the others. */
+	private CellBinder[] cellBinders;
+	/** Name of every column in the ResultSet, resolved once in init(). Index 0 holds column 1. */
+	private String[] columnNames;
+	/** Parameter index in the preparedStatement of the first column of the ResultSet. */
+	private int firstParameterIndex;
+	/** Number of rows added to the current, not yet executed, batch. */
+	private int rowsInBatch;
+	/** Start of every insert statement: "insert into table (columns) values ", built once in init(). */
+	private String insertPrefix;
+	/** Builder for the insert statement of one row, reused for every row. */
+	private StringBuilder insertStatement;
+	/** The table the rows are inserted into: the tableName, or the staging table when useStagingTable is set. */
+	private String loadTableName;
+	/** Number of parameters in the preparedStatement for one row. */
+	private int parametersPerRow;
+	/** Number of rows inserted with one multi-row statement, 0 when every row has its own statement. */
+	private int rowsPerStatement;
+	/** Number of rows added to the current, not yet executed, multi-row statement. */
+	private int rowsInStatement;
+	/** Values of the rows in the current multi-row statement (normal statement). */
+	private StringBuilder multiRowValues;
+	/** Parameters of the rows in the current multi-row statement (preparedStatement). */
+	private ParameterRecorder parameterRecorder;
+	/** Workers that insert the rows when parallelWorkers is used. */
+	private ParallelInserter parallelInserter;
+	/** Rows that are not yet handed to the parallel workers. */
+	private ParameterRecorder parallelRows;
+	/** Number of rows that is handed to a parallel worker at once. */
+	private int chunkSize;
+	/** Converter threads of the pipeline, when pipelineConverters is used. */
+	private ConverterPool converterPool;
+	/** Rows and time per stage of the parallel workers and pipeline. */
+	private PipelineStatistics statistics;
+	/** End of the last chunk handed to the pipeline, to determine the time spent on parsing. */
+	private long lastChunkEnd;
+	/** Detects rows with a key that was seen before, when dedupColumns are used. */
+	private Deduplicator deduplicator;
+	/** Deletes the earlier row with the same key, for DuplicatePolicy.LAST_WINS. */
+	private PreparedStatement deleteDuplicate;
+	/** The statements of the tables, when the rows are routed by the bucketColumn. */
+	private TimeBuckets timeBuckets;
+	/** The metaData used to create the table of a bucket. */
+	private ResultSetMetaData bucketMetaData;
+	/** Routes the rows to the shards, in a sharded load. */
+	private ShardRouter shardRouter;
+	/** Keeps the rejected rows, in the error tolerant mode. */
+	private Quarantine quarantine;
+	/** Insert statements of the rows in the current batch (normal statement, error tolerant mode). */
+	private List<String> pendingStatements;
+	/** Parameters of the rows in the current batch (preparedStatement, error tolerant mode). */
+	private ParameterRecorder pendingParameters;
+	/** Line numbers in the file of the rows in the current batch (error tolerant mode). */
+	private List<Integer> pendingRowNumbers;
+	/** Values of the rows in the current batch (error tolerant mode). */
+	private List<String[]> pendingValues;
+	/** Text in the file of the rows in the current batch, null when not known (error tolerant mode). */
+	private List<String> pendingTexts;
+	/** Applies the rows to the table, when keyColumns are used. */
+	private Upserter upserter;
+	/** Loader of the rows, when useBulkLoader is used. */
+	private BulkLoader bulkLoader;
+	/** Records what a DbType binds for an empty cell, for the BulkLoader. */
+	private final PreparedStatement emptyCellRecorder = new RecordingStatement() {
+		@Override
+		void record(int parameterIndex, byte type, long value, Object object) {
+			emptyCellValue = RecordingStatement.toString(type, value, object);
+		}
+	};
+	private String emptyCellValue;
+	/** Columns of the primary key that is created after the load (deferIndexes). */
+	private List<String> deferredPrimaryKey;
+	/** Number of rows inserted since the last commit (autoCommit off). */
+	private int uncommittedRows;
+	/** Size of the values inserted since the last commit (autoCommit off). */
+	private long uncommittedBytes;
+	/** Number of rows committed (autoCommit off). */
+	private long committedRows;
+	/** Set when the load was rolled back, finish() then does not create the indexes or swap the staging table. */
+	private boolean failed;
+
+	public DbCreationUtil() {
+		this(new DbConfig());
+	}
+
+	public DbCreationUtil(DbConfig config) {
+		super();
+		this.config = config;
+		if (config.getDbConnectionManager() == null) {
+			// use the default one
+			config.setDbConnectionManager(new DefaultDbConnectionManager());
+		}
+		config.getDbConnectionManager().setConfig(config);
+	}
+
+	/**
+	 * Create the database for the given resultset
+	 * 
+	 * @param resultset CSVResultSet from the CSVParser.
+	 * @return The jdbcUrl that was used to get the connection from the DriverManager.
+	 * @throws ClassNotFoundException
+	 * @throws SQLException.
+	 */
+	public String createDB(ResultSet resultset) throws SQLException, ClassNotFoundException {
+		try {
+			init(resultset.getMetaData());
+			processResultSet(resultset);
+		} finally {
+			finish();
+		}
+		return config.getJdbcUrl();
+	}
+
+	/**
+	 * Process all records in the ResultSet to rows in the DB.
+	 * 
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	public void processResultSet(ResultSet resultset) throws SQLException {
+		try {
+			if (shardRouter != null) {
+				shardRouter.route(resultset);
+				return;
+			}
+			while (resultset.next()) {
+				if (deduplicator != null && deduplicator.isDuplicate(resultset)) {
+					if (config.getDuplicatePolicy() == DuplicatePolicy.FIRST_WINS) {
+						continue;
+					}
+					replaceDuplicate(resultset);
+				}
+				if (bulkLoader != null) {
+					addToBulkLoader(resultset);
+					continue;
+				}
+				if (parallelInserter != null) {
+					insertWithParallelWorkers(resultset);
+					continue;
+				}
+				if (timeBuckets != null) {
+					insertIntoBucket(resultset);
+				} else if (quarantine != null) {
+					addToTolerantBatch(resultset);
+				} else if (upserter != null) {
+					bindRow(upserter.getPreparedStatement(), 0, resultset);
+					upserter.endRow(config.getRowHashColumn() != null ? rowHash(resultset) : 0);
+				} else if (config.isUsePreparedStatement()) {
+					insertWithPreparedStatement(resultset);
+				} else {
+					insertWithStatement(resultset);
+				}
+				rowInserted(resultset);
+			}
+		} catch (SQLException e) {
+			throw rollback(e);
+		}
+	}
+
+	/**
+	 * Keep track of the uncommitted rows and commit when the configured interval is reached.
+	 * 
+	 * @param resultset the row that was just inserted.
+	 * @throws SQLException
+	 */
+	private void rowInserted(ResultSet resultset) throws SQLException {
+		if (config.isAutoCommit()) {
+			return;
+		}
+		uncommittedRows++;
+		if (config.getCommitIntervalBytes() > 0) {
+			for (int i = 1; i <= columnTypes.length; i++) {
+				String value = resultset.getString(i);
+				if (value != null) {
+					uncommittedBytes += value.length();
+				}
+			}
+		}
+		if ((config.getCommitInterval() > 0 && uncommittedRows >= config.getCommitInterval())
+				|| (config.getCommitIntervalBytes() > 0 && uncommittedBytes >= config.getCommitIntervalBytes())) {
+			commit();
+		}
+	}
+
+	/**
+	 * Send the pending batch and commit the transaction.
+	 * 
+	 * @throws SQLException
+	 */
+	private void commit() throws SQLException {
+		flush();
+		config.getDbConnectionManager().getConnection().commit();
+		committedRows += uncommittedRows;
+		uncommittedRows = 0;
+		uncommittedBytes = 0;
+		if (log.isDebugEnabled()) {
+			log.debug("Committed, " + committedRows + " rows committed so far");
+		}
+	}
+
+	/**
+	 * Roll back the rows inserted since the last commit.
+	 * When autoCommit is used, nothing can be rolled back and the given exception is returned.
+	 * 
+	 * @param cause the exception that caused the rollback.
+	 * @return SQLException that reports how many rows were committed before the failure.
+	 */
+	SQLException rollback(SQLException cause) {
+		failed = true;
+		if (shardRouter != null) {
+			// the shards roll back their own uncommitted rows.
+			shardRouter.abort(cause);
+			return cause;
+		}
+		rowsInBatch = 0;
+		rowsInStatement = 0;
+		if (multiRowValues != null) {
+			multiRowValues.setLength(0);
+		}
+		if (parameterRecorder != null) {
+			parameterRecorder.clear();
+		}
+		if (upserter != null) {
+			upserter.clear();
+		}
+		if (quarantine != null) {
+			clearTolerantBatch();
+		}
+		if (timeBuckets != null) {
+			timeBuckets.clear();
+		}
+		if (bulkLoader != null) {
+			bulkLoader.discard();
+			bulkLoader = null;
+		}
+		if (converterPool != null) {
+			converterPool.abort(cause);
+		}
+		if (parallelInserter != null) {
+			// stop the workers, they roll back their own uncommitted rows.
+			parallelInserter.abort(cause);
+		}
+		if (config.isAutoCommit()) {
+			if (quarantine != null) {
+				// the error tolerant mode does not use autoCommit on the connection.
+				try {
+					config.getDbConnectionManager().getConnection().rollback();
+				} catch (SQLException e) {
+					log.error("Error during rollback", e);
+				}
+			}
+			return cause;
+		}
+		long rolledBack = uncommittedRows;
+		uncommittedRows = 0;
+		uncommittedBytes = 0;
+		try {
+			config.getDbConnectionManager().getConnection().rollback();
+		} catch (SQLException e) {
+			log.error("Error during rollback", e);
+		}
+		if (parallelInserter != null) {
+			return new SQLException("Load failed: " + getCommittedRowCount() + " rows were committed by the workers before the failure, "
+					+ "their uncommitted rows were rolled back (" + cause.getMessage() + ")", cause.getSQLState(), cause.getErrorCode(), cause);
+		}
+		return new SQLException("Load failed: " + committedRows + " rows were committed before the failure, " + rolledBack
+				+ " rows were rolled back (" + cause.getMessage() + ")", cause.getSQLState(), cause.getErrorCode(), cause);
+	}
+
+	/**
+	 * When autoCommit is not used, this is the number of rows that have been committed so far 
+	 * (by this util and its parallel workers). If the load fails, these rows remain in the database.
+	 * 
+	 * @return the number of committed rows.
+	 */
+	public long getCommittedRowCount() {
+		if (parallelInserter != null) {
+			return committedRows + parallelInserter.getCommittedRowCount();
+		}
+		return committedRows;
+	}
+
+	/**
+	 * @return the number of rows that were rejected in the error tolerant mode (see DbConfig.setQuarantineFile()).
+	 */
+	public long getRejectedRowCount() {
+		return quarantine == null ? 0 : quarantine.getRejectedRows();
+	}
+
+	/**
+	 * @return the number of rows that were discarded because their key (see DbConfig.setDedupColumns()) 
+	 * was a duplicate, 0 when no deduplication is used.
+	 */
+	public long getDuplicateCount() {
+		return deduplicator == null ? 0 : deduplicator.getDuplicateCount();
+	}
+
+	/**
+	 * @return true when the transactions are controlled by this util instead of autoCommit on the connection.
+	 */
+	private boolean isManualCommit() {
+		return !config.isAutoCommit() || config.isErrorTolerant();
+	}
+
+	/**
+	 * Add the current row to the batch of the error tolerant mode, and insert the batch when it is full.
+	 * A row that cannot be converted by its DbTypes is rejected right away.
+	 * 
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void addToTolerantBatch(ResultSet resultset) throws SQLException {
+		String[] values = new String[columnTypes.length];
+		for (int i = 1; i <= values.length; i++) {
+			values[i - 1] = resultset.getString(i);
+		}
+		try {
+			if (pendingParameters != null) {
+				bindRow(pendingParameters.getPreparedStatement(), 0, resultset);
+				pendingParameters.endRow();
+			} else {
+				pendingStatements.add(makeInsertStatement(resultset));
+			}
+		} catch (SQLException e) {
+			rejectUnconverted(resultset, values, e);
+			return;
+		} catch (RuntimeException e) {
+			rejectUnconverted(resultset, values, new SQLException("Cannot convert row: " + e, e));
+			return;
+		}
+		pendingRowNumbers.add(Integer.valueOf(getLineNumber(resultset)));
+		pendingValues.add(values);
+		pendingTexts.add(getLineText(resultset));
+		if (pendingRowNumbers.size() >= Math.max(1, config.getBatchSize())) {
+			executeTolerantBatch();
+		}
+	}
+
+	private void rejectUnconverted(ResultSet resultset, String[] values, SQLException cause) throws SQLException {
+		if (pendingParameters != null) {
+			pendingParameters.discardRow();
+		}
+		quarantine.reject(getLineNumber(resultset), values, getLineText(resultset), cause);
+	}
+
+	/**
+	 * @return the number of the line in the file of the current row, or the row number when the line is not known.
+	 */
+	private int getLineNumber(ResultSet resultset) throws SQLException {
+		if (resultset instanceof CSVResultSet) {
+			int lineNumber = ((CSVResultSet) resultset).getLineNumber();
+			if (lineNumber > 0) {
+				return lineNumber;
+			}
+		}
+		return resultset.getRow();
+	}
+
+	/**
+	 * @return the text in the file of the current row, or null when it is not known.
+	 */
+	private String getLineText(ResultSet resultset) throws SQLException {
+		return resultset instanceof CSVResultSet ? ((CSVResultSet) resultset).getLineText() : null;
+	}
+
+	/**
+	 * Insert the rows of the batch of the error tolerant mode. When autoCommit is used, the rows are committed.
+	 * 
+	 * @throws SQLException when the rows can not be inserted or rejected.
+	 */
+	private void executeTolerantBatch() throws SQLException {
+		int count = pendingRowNumbers.size();
+		if (count > 0) {
+			try {
+				insertTolerant(0, count);
+			} finally {
+				clearTolerantBatch();
+			}
+		}
+		if (config.isAutoCommit()) {
+			config.getDbConnectionManager().getConnection().commit();
+		}
+	}
+
+	/**
+	 * Insert the rows from - to of the batch in one batch, within a savepoint. When the batch fails, it is rolled 
+	 * back to the savepoint and both halves are inserted separately, until the failing rows are found and rejected.
+	 * 
+	 * @param from index of the first row in the batch.
+	 * @param to index after the last row.
+	 * @throws SQLException
+	 */
+	private void insertTolerant(int from, int to) throws SQLException {
+		Connection connection = config.getDbConnectionManager().getConnection();
+		Statement statement = pendingParameters != null ? preparedStatement : st;
+		Savepoint savepoint = connection.setSavepoint();
+		try {
+			for (int r = from; r < to; r++) {
+				if (pendingParameters != null) {
+					pendingParameters.replayRow(preparedStatement, r);
+					preparedStatement.addBatch();
+				} else {
+					st.addBatch(pendingStatements.get(r));
+				}
+			}
+			checkUpdateCounts(statement.executeBatch(), to - from);
+		} catch (SQLException e) {
+			statement.clearBatch();
+			connection.rollback(savepoint);
+			if (to - from == 1) {
+				quarantine.reject(pendingRowNumbers.get(from).intValue(), pendingValues.get(from), pendingTexts.get(from), e);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			insertTolerant(from, middle);
+			insertTolerant(middle, to);
+			return;
+		}
+		connection.releaseSavepoint(savepoint);
+	}
+
+	private void clearTolerantBatch() {
+		pendingRowNumbers.clear();
+		pendingValues.clear();
+		pendingTexts.clear();
+		if (pendingParameters != null) {
+			pendingParameters.clear();
+		} else {
+			pendingStatements.clear();
+		}
+	}
+
+	/**
+	 * Insert a row into the database using a normal statement.
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void insertWithStatement(ResultSet resultset) throws SQLException {
+		if (rowsPerStatement > 1) {
+			addToMultiRowStatement(resultset);
+			return;
+		}
+		String insertStatement = makeInsertStatement(resultset);
+		if (log.isDebugEnabled()) {
+			log.debug("Inserting: " + insertStatement);
+		}
+		if (config.getBatchSize() > 1) {
+			st.addBatch(insertStatement);
+			addedToBatch(st);
+		} else {
+			st.execute(insertStatement);
+		}
+	}
+
+	/**
+	 * Initialise the connection and create the table is necessary.
+	 * 
+	 * @param resultSetMetaData
+	 * @throws SQLException
+	 */
+	public void init(ResultSetMetaData resultSetMetaData) throws SQLException {
+		config.checkProperties();
+		shardRouter = null;
+		failed = false;
+		if (!config.getShards().isEmpty()) {
+			startShards(resultSetMetaData);
+			return;
+		}
+		loadTableName = config.getTableName();
+		if (config.isUseStagingTable()) {
+			if (!config.isCreateTable() || config.getKeyColumns() != null) {
+				throw new SQLException("useStagingTable requires createTable and cannot be used with keyColumns");
+			}
+			loadTableName = config.getTableName() + STAGING_SUFFIX;
+		}
+		createBindingPlan(resultSetMetaData);
+		committedRows = 0;
+		uncommittedRows = 0;
+		uncommittedBytes = 0;
+		if (isManualCommit()) {
+			config.getDbConnectionManager().getConnection().setAutoCommit(false);
+		}
+		quarantine = null;
+		if (config.isErrorTolerant()) {
+			if (config.getKeyColumns() != null) {
+				throw new SQLException("The error tolerant mode (quarantineFile or quarantineTable) cannot be used with keyColumns");
+			}
+			quarantine = new Quarantine(config, config.getDbConnectionManager().getConnection());
+		}
+		timeBuckets = config.getBucketColumn() != null ? createTimeBuckets(resultSetMetaData) : null;
+
+		deferredPrimaryKey = new ArrayList<String>();
+		if (config.isCreateTable() && timeBuckets == null) {
+			st = config.getDbConnectionManager().getConnection().createStatement();
+			if (config.isUseStagingTable()) {
+				dropLeftOverTable(loadTableName);
+				dropLeftOverTable(config.getTableName() + OLD_SUFFIX);
+			}
+			String creatTableStatement = makeCreateTableStatement(loadTableName, resultSetMetaData);
+			if (log.isDebugEnabled()) {
+				log.debug("Creation statement: " + creatTableStatement);
+			}
+			st.execute(creatTableStatement);
+			if (!isDeferIndexes()) {
+				createIndexes();
+			}
+			if (config.getQuarantineTable() != null) {
+				st.execute(Quarantine.makeCreateTableStatement(config.getQuarantineTable()));
+			}
+			if (isManualCommit()) {
+				// the table must remain, even if the load is rolled back.
+				config.getDbConnectionManager().getConnection().commit();
+			}
+		} else if (!config.isUsePreparedStatement() || timeBuckets != null) {
+			st = config.getDbConnectionManager().getConnection().createStatement();
+		}
+		rowsInStatement = 0;
+		parallelInserter = null;
+		converterPool = null;
+		statistics = new PipelineStatistics();
+		upserter = null;
+		deduplicator = config.getDedupColumns() != null ? createDeduplicator() : null;
+		if (deduplicator != null && config.getDuplicatePolicy() == DuplicatePolicy.LAST_WINS && config.getKeyColumns() == null) {
+			if (config.isUseBulkLoader() || config.getParallelWorkers() > 1 || config.getPipelineConverters() > 0) {
+				throw new SQLException("DuplicatePolicy.LAST_WINS cannot be used with parallelWorkers, pipelineConverters or useBulkLoader");
+			}
+			deleteDuplicate = config.getDbConnectionManager().getConnection().prepareStatement(makeDeleteDuplicateStatement());
+		}
+		bulkLoader = config.isUseBulkLoader() && config.getKeyColumns() == null && quarantine == null && timeBuckets == null ? startBulkLoader() : null;
+		if (bulkLoader == null) {
+			prepareInserts();
+		} else {
+			rowsPerStatement = 0;
+		}
+	}
+
+	/**
+	 * Start the threads of a sharded load. Rows are handed to a shard in chunks of its batchSize.
+	 * 
+	 * @param resultSetMetaData
+	 * @throws SQLException when the partitionColumn is not a column of the file.
+	 */
+	private void startShards(ResultSetMetaData resultSetMetaData) throws SQLException {
+		int partitionColumn = 0;
+		for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+			if (resultSetMetaData.getColumnName(i).equalsIgnoreCase(config.getPartitionColumn())) {
+				partitionColumn = i;
+			}
+		}
+		if (partitionColumn == 0) {
+			throw new SQLException("The partitionColumn " + config.getPartitionColumn() + " is not a column of the file");
+		}
+		chunkSize = config.getBatchSize() > 1 ? config.getBatchSize() : ParallelInserter.DEFAULT_CHUNK_SIZE;
+		shardRouter = new ShardRouter(config.getShards(), config.getPartitioner(), partitionColumn, chunkSize, resultSetMetaData);
+	}
+
+	/**
+	 * Create the TimeBuckets for the bucketColumn.
+	 * 
+	 * @param resultSetMetaData
+	 * @return TimeBuckets
+	 * @throws SQLException when the bucketColumn is not a column of the file, or the configuration cannot be combined.
+	 */
+	private TimeBuckets createTimeBuckets(ResultSetMetaData resultSetMetaData) throws SQLException {
+		if (config.getKeyColumns() != null || config.isUseStagingTable() || config.isErrorTolerant()
+				|| (config.getDedupColumns() != null && config.getDuplicatePolicy() == DuplicatePolicy.LAST_WINS)) {
+			throw new SQLException("The bucketColumn cannot be used with keyColumns, useStagingTable, the error tolerant mode or DuplicatePolicy.LAST_WINS");
+		}
+		int column = indexOfColumn(config.getBucketColumn());
+		if (column == 0) {
+			throw new SQLException("The bucketColumn " + config.getBucketColumn() + " is not a column of the file");
+		}
+		bucketMetaData = resultSetMetaData;
+		return new TimeBuckets(config, column);
+	}
+
+	/**
+	 * Insert the row into the table of its bucket. The table is created, and its statement is prepared, when needed.
+	 * 
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void insertIntoBucket(ResultSet resultset) throws SQLException {
+		String table = timeBuckets.getTableName(resultset);
+		PreparedStatement statement = timeBuckets.getPreparedStatement(table);
+		if (statement == null) {
+			if (config.isCreateTable() && timeBuckets.isNew(table) && !tableExists(table)) {
+				String createTableStatement = makeCreateTableStatement(table, bucketMetaData);
+				if (log.isDebugEnabled()) {
+					log.debug("Creation statement: " + createTableStatement);
+				}
+				st.execute(createTableStatement);
+			}
+			statement = config.getDbConnectionManager().getConnection().prepareStatement(makeInsertPrefix(table) + makeParameterRow());
+			timeBuckets.open(table, statement);
+		}
+		bindRow(statement, 0, resultset);
+		timeBuckets.addRow(table);
+	}
+
+	/**
+	 * Create the Deduplicator for the dedupColumns.
+	 * 
+	 * @return Deduplicator
+	 * @throws SQLException when a dedup column is not a column of the file.
+	 */
+	private Deduplicator createDeduplicator() throws SQLException {
+		String[] names = config.getDedupColumns();
+		int[] columns = new int[names.length];
+		for (int k = 0; k < names.length; k++) {
+			columns[k] = indexOfColumn(names[k]);
+			if (columns[k] == 0) {
+				throw new SQLException("Dedup column " + names[k] + " is not a column of the file");
+			}
+		}
+		return new Deduplicator(columns, config.getDedupMemory());
+	}
+
+	/**
+	 * @param name the name of a column.
+	 * @return the column number (starting with 1) in the ResultSet, or 0 when there is no such column.
+	 */
+	private int indexOfColumn(String name) {
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equalsIgnoreCase(name)) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return DELETE FROM table WHERE dedupColumns = ?
+	 */
+	private String makeDeleteDuplicateStatement() {
+		StringBuilder sql = new StringBuilder("DELETE FROM ");
+		sql.append(loadTableName);
+		sql.append(" WHERE ");
+		String[] names = config.getDedupColumns();
+		for (int k = 0; k < names.length; k++) {
+			if (k > 0) {
+				sql.append(" AND ");
+			}
+			sql.append(names[k]).append(" = ?");
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Replace the earlier row with the same key as the current row (DuplicatePolicy.LAST_WINS): the pending rows 
+	 * are sent to the database, and the earlier row is deleted. With keyColumns the upsert replaces it.
+	 * 
+	 * @param resultset positioned on the duplicate row.
+	 * @throws SQLException
+	 */
+	private void replaceDuplicate(ResultSet resultset) throws SQLException {
+		flush();
+		if (deleteDuplicate == null) {
+			return;
+		}
+		String[] names = config.getDedupColumns();
+		for (int k = 0; k < names.length; k++) {
+			int column = indexOfColumn(names[k]);
+			columnTypes[column - 1].insertIntoPreparedStatement(deleteDuplicate, k + 1, resultset, column);
+		}
+		deleteDuplicate.executeUpdate();
+	}
+
+	/**
+	 * Prepare the statements (or workers) that insert the rows.
+	 * 
+	 * @throws SQLException
+	 */
+	private void prepareInserts() throws SQLException {
+		rowsPerStatement = determineRowsPerStatement();
+		if (timeBuckets != null) {
+			// the statement of a table is prepared when its first row arrives.
+			return;
+		}
+		if (quarantine != null) {
+			pendingRowNumbers = new ArrayList<Integer>();
+			pendingValues = new ArrayList<String[]>();
+			pendingTexts = new ArrayList<String>();
+			if (config.isUsePreparedStatement()) {
+				preparedStatement = makePreparedStatement(1);
+				pendingParameters = new ParameterRecorder();
+			} else {
+				pendingStatements = new ArrayList<String>();
+			}
+		} else if (config.getKeyColumns() != null) {
+			String[] names = new String[parametersPerRow];
+			if (config.getExtraColumn() != null) {
+				names[0] = config.getExtraColumnName();
+			}
+			System.arraycopy(columnNames, 0, names, firstParameterIndex - 1, columnNames.length);
+			upserter = new Upserter(config.getDbConnectionManager().getConnection(), config, names, firstParameterIndex);
+		} else if (config.getParallelWorkers() > 1 || config.getPipelineConverters() > 0) {
+			chunkSize = config.getBatchSize() > 1 ? config.getBatchSize() : ParallelInserter.DEFAULT_CHUNK_SIZE;
+			parallelRows = new ParameterRecorder();
+			parallelInserter = new ParallelInserter(config, insertPrefix + makeParameterRow(), Math.max(1, config.getParallelWorkers()), statistics);
+			if (config.getPipelineConverters() > 0 && deduplicator == null) {
+				converterPool = new ConverterPool(this, parallelInserter, config.getPipelineConverters(), statistics);
+				lastChunkEnd = System.nanoTime();
+			}
+		} else if (config.isUsePreparedStatement()) {
+			preparedStatement = makePreparedStatement(rowsPerStatement > 1 ? rowsPerStatement : 1);
+			if (rowsPerStatement > 1) {
+				parameterRecorder = new ParameterRecorder();
+			}
+		} else if (rowsPerStatement > 1) {
+			multiRowValues = new StringBuilder(config.getMaxStatementLength());
+		}
+	}
+
+	/**
+	 * Select the BulkLoader for the database and start the load, when all types can be loaded.
+	 * 
+	 * @return BulkLoader or null when the rows must be inserted.
+	 * @throws SQLException
+	 */
+	private BulkLoader startBulkLoader() throws SQLException {
+		BulkLoader loader = selectBulkLoader();
+		if (loader == null) {
+			log.info("No BulkLoader supports " + config.getJdbcUrl() + ", using inserts");
+			return null;
+		}
+		String[] names = new String[parametersPerRow];
+		int j = 0;
+		if (config.getExtraColumn() != null) {
+			if (!isLoadable(config.getExtraColumn())) {
+				return null;
+			}
+			names[j++] = config.getExtraColumnName();
+		}
+		for (int i = 0; i < columnTypes.length; i++) {
+			if (!isLoadable(columnTypes[i])) {
+				return null;
+			}
+			names[j++] = columnNames[i];
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Loading with " + loader.getClass().getName());
+		}
+		loader.start(loadTableName, names);
+		return loader;
+	}
+
+	/**
+	 * @return the configured BulkLoader, or the first of the bulkLoaders that supports the jdbcUrl, or null.
+	 */
+	private BulkLoader selectBulkLoader() {
+		if (config.getBulkLoader() != null) {
+			return config.getBulkLoader();
+		}
+		for (BulkLoader loader : config.getBulkLoaders()) {
+			if (loader.supports(config.getJdbcUrl())) {
+				return loader;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The values of the types of this library can be handed to a BulkLoader, those of other types are unknown.
+	 * 
+	 * @param type DbType
+	 * @return true if the values of the type can be loaded.
+	 */
+	private boolean isLoadable(DbType type) {
+		if (type.getClass().getPackage() != LongVarcharDbType.class.getPackage()) {
+			log.info("The BulkLoader does not support " + type.getClass().getName() + ", using inserts");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hand the current row to the BulkLoader. The values are the same as in the insert statement, 
+	 * without the quotes of the sql literals. An empty cell gets the value the DbType binds on a PreparedStatement, 
+	 * e.g. 0 for an IntegerDbType and an empty string for a CharDbType, so the rows are the same as when inserted.
+	 * 
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void addToBulkLoader(ResultSet resultset) throws SQLException {
+		String[] values = new String[parametersPerRow];
+		int j = 0;
+		if (config.getExtraColumn() != null) {
+			values[j++] = toLoaderValue(config.getExtraColumn().getInsertValue(0, resultset));
+		}
+		for (int i = 1; i <= columnTypes.length; i++) {
+			if (resultset.getString(i) == null) {
+				emptyCellValue = null;
+				columnTypes[i - 1].insertIntoPreparedStatement(emptyCellRecorder, 1, resultset, i);
+				values[j++] = emptyCellValue;
+			} else {
+				values[j++] = toLoaderValue(columnTypes[i - 1].getInsertValue(i, resultset));
+			}
+		}
+		bulkLoader.addRow(values);
+	}
+
+	/**
+	 * @param literal the value as used in an insert statement.
+	 * @return the value without the quotes of a sql string literal.
+	 */
+	private String toLoaderValue(String literal) {
+		int last = literal.length() - 1;
+		if (last > 0 && literal.charAt(0) == '\'' && literal.charAt(last) == '\'') {
+			return literal.substring(1, last).replace("''", "'");
+		}
+		return literal;
+	}
+
+	/**
+	 * Determine the number of rows per multi-row statement. When a preparedStatement is used, the number of rows 
+	 * is limited so the statement with all its parameters stays within the maximum statement length.
+	 * 
+	 * @return the number of rows, 0 when multi-row statements are not used.
+	 */
+	private int determineRowsPerStatement() {
+		if (config.isErrorTolerant() || config.getBucketColumn() != null || config.getKeyColumns() != null || config.getParallelWorkers() > 1 || config.getPipelineConverters() > 0) {
+			return 0;
+		}
+		int rows = config.getRowsPerStatement();
+		if (rows > 1 && config.isUsePreparedStatement()) {
+			int rowLength = makeParameterRow().length() + 2;
+			rows = Math.min(rows, (config.getMaxStatementLength() - insertPrefix.length()) / rowLength);
+		}
+		return rows > 1 ? rows : 0;
+	}
+
+	/**
+	 * Resolve the name and DbType of every column once, so inserting a row does not need 
+	 * to look them up in the metaData and the config again.
+	 * 
+	 * @param metaData
+	 * @throws SQLException
+	 */
+	private void createBindingPlan(ResultSetMetaData metaData) throws SQLException {
+		int count = metaData.getColumnCount();
+		columnTypes = new DbType[count];
+		appendingTypes = new AppendingDbType[count];
+		cellBinders = new CellBinder[count];
+		columnNames = new String[count];
+		DbType defaultType = null;
+		for (int i = 1; i <= count; i++) {
+			columnNames[i - 1] = metaData.getColumnName(i);
+			DbType dataType = getDataType(i, metaData);
+			if (config.isSizeColumns()) {
+				dataType = sizeDataType(dataType, i, metaData);
+			}
+			if (dataType == null) {
+				if (defaultType == null) {
+					defaultType = new LongVarcharDbType();
+				}
+				dataType = defaultType;
+			}
+			columnTypes[i - 1] = dataType;
+			appendingTypes[i - 1] = dataType instanceof AppendingDbType ? (AppendingDbType) dataType : null;
+			cellBinders[i - 1] = dataType instanceof CellBinder ? (CellBinder) dataType : null;
+		}
+		firstParameterIndex = config.getExtraColumn() != null ? 2 : 1;
+		parametersPerRow = count + firstParameterIndex - 1;
+		insertPrefix = makeInsertPrefix(loadTableName);
+		insertStatement = new StringBuilder(insertPrefix.length() + 16 * parametersPerRow);
+		insertStatement.append(insertPrefix);
+	}
+
+	/**
+	 * Finish the creation of the table.
+	 * 
+	 * @throws SQLException
+	 */
+	public void finish() throws SQLException {
+		if (shardRouter != null) {
+			shardRouter.finish();
+			return;
+		}
+		try {
+			if (failed) {
+				if (config.isUseStagingTable()) {
+					log.warn("Load failed, table " + loadTableName + " is dropped by the next load");
+				}
+				return;
+			}
+			if (config.isAutoCommit()) {
+				// send the last, partial, batch.
+				flush();
+			} else {
+				// send the last batch and commit the last rows.
+				commit();
+			}
+			if (config.isCreateTable() && isDeferIndexes()) {
+				createIndexes();
+				if (isManualCommit()) {
+					config.getDbConnectionManager().getConnection().commit();
+				}
+			}
+			if (config.isUseStagingTable()) {
+				swapStagingTable();
+			}
+		} catch (SQLException e) {
+			throw rollback(e);
+		} finally {
+			closeStatements();
+			config.getDbConnectionManager().close();
+		}
+	}
+
+	/**
+	 * Close the statements used to create the table and insert the rows.
+	 * 
+	 * @throws SQLException
+	 */
+	private void closeStatements() throws SQLException {
+		rowsInBatch = 0;
+		rowsInStatement = 0;
+		multiRowValues = null;
+		parameterRecorder = null;
+		parallelRows = null;
+		if (bulkLoader != null) {
+			bulkLoader.discard();
+			bulkLoader = null;
+		}
+		if (upserter != null) {
+			upserter.close();
+			upserter = null;
+		}
+		if (deduplicator != null) {
+			if (log.isInfoEnabled()) {
+				log.info("Discarded " + deduplicator.getDuplicateCount() + " duplicate rows");
+			}
+			deduplicator.close();
+		}
+		if (deleteDuplicate != null) {
+			deleteDuplicate.close();
+			deleteDuplicate = null;
+		}
+		if (timeBuckets != null) {
+			if (log.isInfoEnabled()) {
+				log.info("Inserted rows into " + timeBuckets.getTableCount() + " tables");
+			}
+			timeBuckets.close();
+			timeBuckets = null;
+		}
+		if (quarantine != null) {
+			if (log.isInfoEnabled()) {
+				log.info("Rejected " + quarantine.getRejectedRows() + " rows");
+			}
+			quarantine.close();
+			pendingStatements = null;
+			pendingParameters = null;
+		}
+		if (st != null) {
+			st.close();
+			st = null;
+		}
+		if (preparedStatement != null) {
+			preparedStatement.close();
+			preparedStatement = null;
+		}
+	}
+
+	/**
+	 * Create the start of the insert statements: insert into table (columns) values 
+	 * 
+	 * @param tableName the table to insert into.
+	 * @return String
+	 */
+	private String makeInsertPrefix(String tableName) {
+		StringBuilder is = new StringBuilder();
+		is.append("insert into ");
+		is.append(tableName);
+		is.append(" (");
+
+		// logic here for setting column names from header values
+		int count = columnNames.length;
+		boolean firstColumn = true;
+		
+		if (config.getExtraColumn() != null) {
+			is.append(config.getExtraColumnName());
+			firstColumn = false;
+		}
+		for (int i = 0; i < count; i++) {
+			if (!firstColumn) {
+				is.append(", ");
+			} else {
+				firstColumn = false;
+			}
+			is.append(columnNames[i]);
+		}
+		
+		is.append(") values ");
+		return is.toString();
+	}
+
+	/**
+	 * Create the statement-string that will insert one row into the table.
+	 * 
+	 * @param resultset
+	 * @return String
+	 * @throws SQLException
+	 */
+	private String makeInsertStatement(ResultSet resultset) throws SQLException {
+		insertStatement.setLength(insertPrefix.length());
+		appendValues(insertStatement, resultset);
+		return insertStatement.toString();
+	}
+
+	/**
+	 * Append the values of the current row, between brackets, to the insert statement.
+	 * 
+	 * @param is StringBuilder with the insert statement.
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void appendValues(StringBuilder is, ResultSet resultset) throws SQLException {
+		is.append("(");
+		boolean firstColumn = true;
+		DbType extraColumn = config.getExtraColumn();
+		if (extraColumn != null) {
+			appendValue(is, extraColumn instanceof AppendingDbType ? (AppendingDbType) extraColumn : null, extraColumn, 0, resultset);
+			firstColumn = false;
+		}
+
+		int count = columnTypes.length;
+		for (int i = 1; i <= count; i++) {
+			if (!firstColumn) {
+				is.append(", ");
+			} else {
+				firstColumn = false;
+			}
+			appendValue(is, appendingTypes[i - 1], columnTypes[i - 1], i, resultset);
+		}
+		is.append(")");
+	}
+
+	/**
+	 * Append the value of a column to the insert statement, directly by the type when it supports that.
+	 * 
+	 * @param is StringBuilder with the insert statement.
+	 * @param appendingType the type as AppendingDbType, or null.
+	 * @param type the type.
+	 * @param columnNumber
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void appendValue(StringBuilder is, AppendingDbType appendingType, DbType type, int columnNumber, ResultSet resultset) throws SQLException {
+		if (appendingType != null) {
+			appendingType.appendInsertValue(is, columnNumber, resultset);
+		} else {
+			is.append(type.getInsertValue(columnNumber, resultset));
+		}
+	}
+
+	/**
+	 * Add the current row to the multi-row statement and execute the statement when it is full. 
+	 * When the row would make the statement longer than the maximum length, the statement is executed first.
+	 * 
+	 * @param resultset
+	 * @throws SQLException
+	 */
+	private void addToMultiRowStatement(ResultSet resultset) throws SQLException {
+		int start = multiRowValues.length();
+		if (rowsInStatement > 0) {
+			multiRowValues.append(", ");
+		}
+		appendValues(multiRowValues, resultset);
+		if (rowsInStatement > 0 && insertPrefix.length() + multiRowValues.length() > config.getMaxStatementLength()) {
+			String row = multiRowValues.substring(start + 2);
+			multiRowValues.setLength(start);
+			executeMultiRowStatement();
+			multiRowValues.append(row);
+		}
+		rowsInStatement++;
+		if (rowsInStatement >= rowsPerStatement) {
+			executeMultiRowStatement();
+		}
+	}
+
+	/**
+	 * Execute the current multi-row statement and check that every row was inserted.
+	 * 
+	 * @throws SQLException
+	 */
+	private void executeMultiRowStatement() throws SQLException {
+		if (rowsInStatement == 0) {
+			return;
+		}
+		int expected = rowsInStatement;
+		rowsInStatement = 0;
+		int updateCount;
+		if (parameterRecorder == null) {
+			String insertStatement = insertPrefix + multiRowValues;
+			multiRowValues.setLength(0);
+			if (log.isDebugEnabled()) {
+				log.debug("Inserting: " + insertStatement);
+			}
+			updateCount = st.executeUpdate(insertStatement);
+		} else if (expected == rowsPerStatement) {
+			parameterRecorder.replay(preparedStatement);
+			parameterRecorder.clear();
+			updateCount = preparedStatement.executeUpdate();
+		} else {
+			// the last rows, they need a statement with fewer parameters.
+			PreparedStatement partialStatement = makePreparedStatement(expected);
+			try {
+				parameterRecorder.replay(partialStatement);
+				parameterRecorder.clear();
+				updateCount = partialStatement.executeUpdate();
+			} finally {
+				partialStatement.close();
+			}
+		}
+		if (updateCount != expected) {
+			throw new SQLException("Multi-row insert of " + expected + " rows inserted " + updateCount + " rows");
+		}
+	}
+
+	/**
+	 * Send the rows that are waiting in a batch or multi-row statement to the database.
+	 * 
+	 * @throws SQLException
+	 */
+	private void flush() throws SQLException {
+		if (bulkLoader != null) {
+			BulkLoader loader = bulkLoader;
+			bulkLoader = null;
+			uncommittedRows += loader.load(config.getDbConnectionManager().getConnection());
+		} else if (parallelInserter != null) {
+			finishParallelInsert();
+		} else if (timeBuckets != null) {
+			timeBuckets.flush();
+		} else if (quarantine != null) {
+			executeTolerantBatch();
+		} else if (upserter != null) {
+			upserter.flush();
+		} else if (rowsPerStatement > 1) {
+			executeMultiRowStatement();
+		} else {
+			executeBatch(config.isUsePreparedStatement() ? preparedStatement : st);
+		}
+	}
+
+	/**
+	 * Use a preparedStatement to create the new row in the database.
+	 * 
+	 * @param resultSet
+	 * @throws SQLException
+	 */
+	private void insertWithPreparedStatement(ResultSet resultSet) throws SQLException {
+		if (parameterRecorder != null) {
+			// multi-row statement, record the parameters of this row behind those of the previous rows.
+			bindRow(parameterRecorder.getPreparedStatement(), rowsInStatement * parametersPerRow, resultSet);
+		} else {
+			bindRow(preparedStatement, 0, resultSet);
+		}
+		if (parameterRecorder != null) {
+			rowsInStatement++;
+			if (rowsInStatement >= rowsPerStatement) {
+				executeMultiRowStatement();
+			}
+		} else if (config.getBatchSize() > 1) {
+			preparedStatement.addBatch();
+			addedToBatch(preparedStatement);
+		} else {
+			preparedStatement.execute();
+		}
+	}
+
+	/**
+	 * Calculate a hash (64 bit FNV-1a) of the values of the current row, as they are in the file.
+	 * The extraColumn is not part of the hash.
+	 * 
+	 * @param resultSet
+	 * @return the hash
+	 * @throws SQLException
+	 */
+	private long rowHash(ResultSet resultSet) throws SQLException {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 1; i <= columnTypes.length; i++) {
+			String value = resultSet.getString(i);
+			if (value != null) {
+				for (int c = 0; c < value.length(); c++) {
+					hash = (hash ^ value.charAt(c)) * 0x100000001b3L;
+				}
+			}
+			// separate the values, and NULL from an empty value.
+			hash = (hash ^ (value == null ? 0xfffe : 0xffff)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Set the values of the current row as parameters of the PreparedStatement.
+	 * 
+	 * @param target PreparedStatement
+	 * @param offset number of parameters before the first parameter of this row.
+	 * @param resultSet
+	 * @throws SQLException
+	 */
+	private void bindRow(PreparedStatement target, int offset, ResultSet resultSet) throws SQLException {
+		DbType extraColumn = config.getExtraColumn();
+		if (extraColumn != null) {
+			extraColumn.insertIntoPreparedStatement(target, offset + 1, resultSet, 0);
+		}
+		bindColumns(target, offset, resultSet);
+	}
+
+	/**
+	 * Set the values of the columns of the current row (without the extraColumn) as parameters of the PreparedStatement.
+	 * 
+	 * @param target PreparedStatement
+	 * @param offset number of parameters before the first parameter of this row.
+	 * @param resultSet
+	 * @throws SQLException
+	 */
+	private void bindColumns(PreparedStatement target, int offset, ResultSet resultSet) throws SQLException {
+		DbType[] types = columnTypes;
+		int parameterIndex = offset + firstParameterIndex;
+		if (resultSet instanceof CSVResultSet) {
+			// bind the cells as they were parsed, the other types get their value from the ResultSet.
+			CSVResultSet csvResultSet = (CSVResultSet) resultSet;
+			List<String> cells = csvResultSet.getCurrentRow();
+			CellConverter converter = csvResultSet.getCellConverter();
+			for (int i = 0; i < types.length; i++) {
+				if (cellBinders[i] != null) {
+					cellBinders[i].bindCell(target, parameterIndex + i, i < cells.size() ? cells.get(i) : null, converter);
+				} else {
+					types[i].insertIntoPreparedStatement(target, parameterIndex + i, resultSet, i + 1);
+				}
+			}
+			return;
+		}
+		for (int i = 0; i < types.length; i++) {
+			types[i].insertIntoPreparedStatement(target, parameterIndex + i, resultSet, i + 1);
+		}
+	}
+
+	/**
+	 * Record the values of the current row and hand them to the parallel workers once a chunk is complete.
+	 * The values are determined here, in the order of the ResultSet, so e.g. the extraColumn gets the 
+	 * same values as without workers.
+	 * 
+	 * @param resultSet
+	 * @throws SQLException
+	 */
+	private void insertWithParallelWorkers(ResultSet resultSet) throws SQLException {
+		bindRow(parallelRows.getPreparedStatement(), 0, resultSet);
+		parallelRows.endRow();
+		if (parallelRows.getRowCount() >= chunkSize) {
+			parallelInserter.submit(parallelRows);
+			parallelRows = new ParameterRecorder();
+		}
+	}
+
+	/**
+	 * Hand the last rows to the parallel workers and wait until they are finished.
+	 * 
+	 * @throws SQLException the first failure of a worker.
+	 */
+	private void finishParallelInsert() throws SQLException {
+		if (converterPool != null) {
+			converterPool.finish();
+		}
+		if (parallelRows != null && parallelRows.getRowCount() > 0) {
+			ParameterRecorder lastRows = parallelRows;
+			parallelRows = null;
+			parallelInserter.submit(lastRows);
+		}
+		parallelInserter.finish();
+		if (log.isInfoEnabled()) {
+			log.info("Load statistics: " + statistics);
+		}
+	}
+
+	/**
+	 * Process the rows of a ResultSet that holds a part of the file. When the pipeline is used (see 
+	 * DbConfig.setPipelineConverters()) the rows are converted and inserted by other threads, and the
+	 * ResultSet must not be used by the caller anymore. Otherwise this is the same as processResultSet().
+	 * 
+	 * @param chunk ResultSet with the rows, positioned before the first row.
+	 * @param rows the number of rows in the chunk.
+	 * @throws SQLException
+	 */
+	public void processChunk(ResultSet chunk, int rows) throws SQLException {
+		if (converterPool == null) {
+			processResultSet(chunk);
+			return;
+		}
+		try {
+			long start = System.nanoTime();
+			// the extraColumn is determined here, so it follows the order of the file.
+			ParameterRecorder extraColumnValues = null;
+			DbType extraColumn = config.getExtraColumn();
+			if (extraColumn != null) {
+				extraColumnValues = new ParameterRecorder();
+				for (int i = 0; i < rows; i++) {
+					extraColumn.insertIntoPreparedStatement(extraColumnValues.getPreparedStatement(), 1, chunk, 0);
+					extraColumnValues.endRow();
+				}
+			}
+			long waiting = converterPool.submit(chunk, extraColumnValues);
+			long end = System.nanoTime();
+			statistics.parsed(rows, start - lastChunkEnd + end - start - waiting, waiting);
+			lastChunkEnd = end;
+		} catch (SQLException e) {
+			throw rollback(e);
+		}
+	}
+
+	/**
+	 * Determine the values of the rows in the ResultSet with the DbTypes. Used by the converters of the pipeline.
+	 * 
+	 * @param rows ResultSet
+	 * @param extraColumnValues the values of the extraColumn for every row, or null.
+	 * @return the recorded parameters of the rows.
+	 * @throws SQLException
+	 */
+	ParameterRecorder convert(ResultSet rows, ParameterRecorder extraColumnValues) throws SQLException {
+		ParameterRecorder converted = new ParameterRecorder();
+		PreparedStatement target = converted.getPreparedStatement();
+		int row = 0;
+		while (rows.next()) {
+			if (extraColumnValues != null) {
+				extraColumnValues.replayRow(target, row);
+			}
+			bindColumns(target, 0, rows);
+			converted.endRow();
+			row++;
+		}
+		return converted;
+	}
+
+	/**
+	 * @return the number of rows handed to the pipeline at once.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @return true when the CSVParser must keep the text of every row, for the quarantine of the error tolerant mode 
+	 * (also of a shard).
+	 */
+	public boolean isKeepingLineText() {
+		if (config.isErrorTolerant()) {
+			return true;
+		}
+		for (DbConfig shard : config.getShards()) {
+			if (shard.isErrorTolerant()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true when the rows are converted by the converters of the pipeline.
+	 */
+	public boolean isPipelined() {
+		return converterPool != null || shardRouter != null;
+	}
+
+	/**
+	 * @return the rows and time per stage of the last load with parallel workers or the pipeline.
+	 */
+	public PipelineStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Register a row that was added to the batch of the statement and execute the batch when it is full.
+	 * 
+	 * @param statement
+	 * @throws SQLException
+	 */
+	private void addedToBatch(Statement statement) throws SQLException {
+		rowsInBatch++;
+		if (rowsInBatch >= config.getBatchSize()) {
+			executeBatch(statement);
+		}
+	}
+
+	/**
+	 * Execute the rows in the batch of the statement and check that every row was inserted.
+	 * 
+	 * @param statement
+	 * @throws SQLException when the driver reports a failed or missing row.
+	 */
+	private void executeBatch(Statement statement) throws SQLException {
+		if (rowsInBatch == 0) {
+			return;
+		}
+		int expected = rowsInBatch;
+		rowsInBatch = 0;
+		checkUpdateCounts(statement.executeBatch(), expected);
+		if (log.isDebugEnabled()) {
+			log.debug("Executed batch of " + expected + " rows");
+		}
+	}
+
+	/**
+	 * Check the update counts of an executed batch.
+	 * 
+	 * @param updateCounts the result of executeBatch().
+	 * @param expected the number of rows in the batch.
+	 * @throws SQLException when the driver reports a failed or missing row.
+	 */
+	static void checkUpdateCounts(int[] updateCounts, int expected) throws SQLException {
+		if (updateCounts.length != expected) {
+			throw new SQLException("Batch of " + expected + " rows returned " + updateCounts.length + " update counts");
+		}
+		for (int i = 0; i < updateCounts.length; i++) {
+			if (updateCounts[i] == Statement.EXECUTE_FAILED || (updateCounts[i] != Statement.SUCCESS_NO_INFO && updateCounts[i] < 1)) {
+				throw new SQLException("Row " + (i + 1) + " of batch of " + expected + " rows was not inserted (update count " + updateCounts[i] + ")");
+			}
+		}
+	}
+
+	/**
+	 * Create the preparedStatement that inserts the given number of rows.
+	 * 
+	 * @param rows
+	 * @return PreparedStatement
+	 * @throws SQLException
+	 */
+	private PreparedStatement makePreparedStatement(int rows) throws SQLException {
+		String parameterRow = makeParameterRow();
+		StringBuilder ps = new StringBuilder(insertPrefix.length() + rows * (parameterRow.length() + 2));
+		ps.append(insertPrefix);
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				ps.append(", ");
+			}
+			ps.append(parameterRow);
+		}
+		return config.getDbConnectionManager().getConnection().prepareStatement(ps.toString());
+	}
+
+	/**
+	 * @return the parameters for one row in the preparedStatement, e.g. (?, ?, ?)
+	 */
+	private String makeParameterRow() {
+		StringBuilder ps = new StringBuilder("(");
+		for (int i = 0; i < parametersPerRow; i++) {
+			if (i > 0) {
+				ps.append(", ");
+			}
+			ps.append("?");
+		}
+		ps.append(")");
+		return ps.toString();
+	}
+
+	/**
+	 * Create the statement that will create the database Table.
+	 * 
+	 * @param tableName the name of the table.
+	 * @param metaData ResultSetMetaData
+	 * @return String in the form CREATE TABLE table-Name( {Simple-column-Name DataType[ , {Simple-column-Name DataType ] * )
+	 * @throws SQLException
+	 */
+	private String makeCreateTableStatement(String tableName, ResultSetMetaData metaData) throws SQLException {
+		// create table statement
+		StringBuilder ct = new StringBuilder();
+		ct.append("CREATE TABLE ");
+		ct.append(tableName);
+		ct.append("(");
+		boolean firstColumn = true;
+		if (config.getExtraColumn() != null) {
+			appendColumnDefinition(ct, config.getExtraColumnName(), config.getExtraColumn());
+			firstColumn = false;
+		}
+		//		ResultSetMetaData metaData = resultset.getMetaData();
+		for (int i = 1; i <= metaData.getColumnCount(); i++) {
+			if (!firstColumn) {
+				ct.append(", ");
+			} else {
+				firstColumn = false;
+			}
+			String colName = getColumnName(metaData, i);
+			appendColumnDefinition(ct, colName, columnTypes[i - 1]);
+		}
+		if (config.getKeyColumns() != null && config.getRowHashColumn() != null) {
+			ct.append(", ");
+			ct.append(config.getRowHashColumn());
+			ct.append(" BIGINT");
+		}
+		ct.append(")");
+		return ct.toString();
+	}
+
+	/**
+	 * Append the name and type of a column to the create table statement. When deferIndexes is set, 
+	 * a PRIMARY KEY in the type is replaced by NOT NULL and the column is remembered for the primary key
+	 * that is created after the load.
+	 * 
+	 * @param ct StringBuilder with the create table statement.
+	 * @param colName
+	 * @param type
+	 */
+	private void appendColumnDefinition(StringBuilder ct, String colName, DbType type) {
+		String sqlType = type.getSqlType();
+		ct.append(colName);
+		ct.append(" ");
+		int primaryKey = sqlType.toUpperCase().indexOf(PRIMARY_KEY);
+		if (isDeferIndexes() && primaryKey >= 0) {
+			deferredPrimaryKey.add(colName);
+			ct.append(sqlType.substring(0, primaryKey));
+			ct.append("NOT NULL");
+			ct.append(sqlType.substring(primaryKey + PRIMARY_KEY.length()));
+		} else {
+			ct.append(sqlType);
+		}
+	}
+
+	/**
+	 * Create the primary key that was left out of the create table statement, and the configured indexes.
+	 * 
+	 * @throws SQLException
+	 */
+	private void createIndexes() throws SQLException {
+		if (!deferredPrimaryKey.isEmpty()) {
+			StringBuilder pk = new StringBuilder("ALTER TABLE ");
+			pk.append(loadTableName);
+			if (config.isUseStagingTable()) {
+				// a named constraint would clash with the one of the table that is replaced.
+				pk.append(" ADD PRIMARY KEY (");
+			} else {
+				pk.append(" ADD CONSTRAINT ");
+				pk.append(config.getTableName());
+				pk.append("_PK PRIMARY KEY (");
+			}
+			for (int i = 0; i < deferredPrimaryKey.size(); i++) {
+				if (i > 0) {
+					pk.append(", ");
+				}
+				pk.append(deferredPrimaryKey.get(i));
+			}
+			pk.append(")");
+			executeIndexStatement(pk.toString());
+			deferredPrimaryKey.clear();
+		}
+		Set<String> usedNames = config.isUseStagingTable() && !config.getIndexes().isEmpty() ? findIndexNames(config.getTableName()) : new HashSet<String>();
+		for (Map.Entry<String, String> index : config.getIndexes().entrySet()) {
+			String name = index.getKey();
+			if (usedNames.contains(name.toUpperCase())) {
+				// the table that is replaced has the index, alternate with the suffixed name.
+				name = name + STAGING_SUFFIX;
+			}
+			executeIndexStatement("CREATE INDEX " + name + " ON " + loadTableName + " (" + index.getValue() + ")");
+		}
+	}
+
+	/**
+	 * @return true when the primary key and indexes are created after the load (deferIndexes or useStagingTable), 
+	 * never for the tables of the buckets.
+	 */
+	private boolean isDeferIndexes() {
+		return (config.isDeferIndexes() || config.isUseStagingTable()) && config.getBucketColumn() == null;
+	}
+
+	/**
+	 * Rename the staging table to the tableName, and the existing table to tableName + "_OLD", in one transaction.
+	 * The old table is dropped after the commit.
+	 * 
+	 * @throws SQLException
+	 */
+	private void swapStagingTable() throws SQLException {
+		Connection connection = config.getDbConnectionManager().getConnection();
+		String oldTableName = config.getTableName() + OLD_SUFFIX;
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try {
+			boolean replace = tableExists(config.getTableName());
+			if (replace) {
+				executeIndexStatement(makeRenameTableStatement(config.getTableName(), oldTableName));
+			}
+			executeIndexStatement(makeRenameTableStatement(loadTableName, config.getTableName()));
+			connection.commit();
+			if (replace) {
+				executeIndexStatement("DROP TABLE " + oldTableName);
+				connection.commit();
+			}
+		} catch (SQLException e) {
+			// setAutoCommit(true) would commit a half done swap.
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	/**
+	 * @param from current name of the table.
+	 * @param to new name of the table.
+	 * @return the statement that renames the table, using the renameTableStatement or the one for the database.
+	 */
+	private String makeRenameTableStatement(String from, String to) {
+		String pattern = config.getRenameTableStatement();
+		if (pattern == null) {
+			String url = config.getJdbcUrl().toLowerCase();
+			pattern = url.startsWith("jdbc:derby:") || url.startsWith("jdbc:mysql:") ? "RENAME TABLE {0} TO {1}" : "ALTER TABLE {0} RENAME TO {1}";
+		}
+		return MessageFormat.format(pattern, from, to);
+	}
+
+	/**
+	 * Drop a staging or old table that was left behind by a failed load.
+	 * 
+	 * @param tableName
+	 * @throws SQLException
+	 */
+	private void dropLeftOverTable(String tableName) throws SQLException {
+		if (tableExists(tableName)) {
+			log.warn("Dropping table " + tableName + " of an earlier load");
+			st.execute("DROP TABLE " + tableName);
+		}
+	}
+
+	/**
+	 * @param tableName
+	 * @return true when the table exists, looking for the name as is, in upper case and in lower case.
+	 * @throws SQLException
+	 */
+	private boolean tableExists(String tableName) throws SQLException {
+		DatabaseMetaData metaData = config.getDbConnectionManager().getConnection().getMetaData();
+		for (String name : new String[] { tableName, tableName.toUpperCase(), tableName.toLowerCase() }) {
+			ResultSet tables = metaData.getTables(null, null, name, null);
+			try {
+				if (tables.next()) {
+					return true;
+				}
+			} finally {
+				tables.close();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param tableName
+	 * @return the names, in upper case, of the indexes on the table.
+	 * @throws SQLException
+	 */
+	private Set<String> findIndexNames(String tableName) throws SQLException {
+		Set<String> names = new HashSet<String>();
+		DatabaseMetaData metaData = config.getDbConnectionManager().getConnection().getMetaData();
+		for (String name : new String[] { tableName, tableName.toUpperCase(), tableName.toLowerCase() }) {
+			ResultSet indexes = metaData.getIndexInfo(null, null, name, false, true);
+			try {
+				while (indexes.next()) {
+					String indexName = indexes.getString("INDEX_NAME");
+					if (indexName != null) {
+						names.add(indexName.toUpperCase());
+					}
+				}
+			} finally {
+				indexes.close();
+			}
+		}
+		return names;
+	}
+
+	private void executeIndexStatement(String statement) throws SQLException {
+		if (log.isDebugEnabled()) {
+			log.debug("Index statement: " + statement);
+		}
+		long start = System.currentTimeMillis();
+		st.execute(statement);
+		if (log.isInfoEnabled()) {
+			log.info(statement + " took " + (System.currentTimeMillis() - start) + " ms");
+		}
+	}
+
+	/**
+	 * Determine the columnName based on the MetaData.
+	 * 
+	 * @param metaData
+	 * @param i
+	 * @return String
+	 * @throws SQLException
+	 */
+	private String getColumnName(ResultSetMetaData metaData, int i) throws SQLException {
+		String name = metaData.getColumnName(i);
+		name = name.replace(' ', '_');
+		return name;
+	}
+
+	/**
+	 * Get the DataType that is configured for the column with index i.
+	 * 
+	 * @param i
+	 * @param metaData
+	 * @return the configured DbType or <code>null</code> if none was configured.
+	 * @throws SQLException
+	 */
+	private DbType getDataType(int i, ResultSetMetaData metaData) throws SQLException {
+		String colName = metaData.getColumnName(i);
+		DbType dataType = config.getDataTypes().get(colName);
+		if (dataType == null) {
+			dataType = config.getDataTypes().get(Integer.toString(i));
+		}
+		return dataType;
+	}
+
+	/**
+	 * Size the DbType of a column with the columnDisplaySize, precision and scale of the metaData (see sizeColumns). 
+	 * A VARCHAR, CHAR or DECIMAL (NUMERIC) type gets the size of the longest value, a column without DbType becomes 
+	 * a VARCHAR instead of a long varchar. The configured type is kept when the metaData has no sizes, or when the 
+	 * size is too large for the type.
+	 * 
+	 * @param dataType the configured DbType, or null.
+	 * @param i the column.
+	 * @param metaData
+	 * @return the sized DbType, or the given one.
+	 * @throws SQLException
+	 */
+	private DbType sizeDataType(DbType dataType, int i, ResultSetMetaData metaData) throws SQLException {
+		int displaySize = metaData.getColumnDisplaySize(i);
+		if (displaySize <= 0) {
+			// no statistics, or no values.
+			return dataType;
+		}
+		DbType sized = dataType;
+		if (dataType == null || dataType.getClass() == VarcharDbType.class) {
+			if (displaySize <= MAX_VARCHAR_LENGTH) {
+				sized = new VarcharDbType(displaySize);
+			}
+		} else if (dataType.getClass() == CharDbType.class) {
+			if (displaySize <= MAX_CHAR_LENGTH) {
+				sized = new CharDbType(displaySize);
+			}
+		} else if (dataType.getClass() == DecimalDbType.class || dataType.getClass() == NumericDbType.class) {
+			int precision = metaData.getPrecision(i);
+			if (precision <= MAX_DECIMAL_PRECISION) {
+				DecimalDbType decimal = dataType.getClass() == NumericDbType.class ? new NumericDbType() : new DecimalDbType();
+				decimal.setPrecision(precision);
+				decimal.setScale(metaData.getScale(i));
+				sized = decimal;
+			}
+		}
+		if (sized != dataType && log.isDebugEnabled()) {
+			log.debug("Sized column " + metaData.getColumnName(i) + " as " + sized.getSqlType());
+		}
+		return sized;
+	}
+
+	/**
+	 * @param config the config to set
+	 */
+	public void setConfig(DbConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * @return the config
+	 */
+	public DbConfig getConfig() {
+		return config;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Detects rows with a key that was already seen in the load. The key consists of the values of the key columns, 
+ * as they are in the file. Every key is first checked against a Bloom filter, which quickly tells most new keys 
+ * apart; only when the filter reports a possible duplicate the exact set of keys (which may be written to disk) 
+ * is checked.
+ * 
+ * @author Micha Wensveen
+ */
+class Deduplicator {
+	/** False positive rate of the Bloom filter. */
+	private static final double FALSE_POSITIVE_RATE = 0.001;
+	/** Number of keys the Bloom filter is initially sized for. */
+	private static final long EXPECTED_KEYS = 1000000;
+
+	private final int[] keyColumns;
+	private final ScalableBloomFilter filter;
+	private final SpillableKeySet keys;
+	private final StringBuilder key = new StringBuilder();
+	private long duplicates;
+
+	/**
+	 * @param keyColumns the column numbers (starting with 1) of the key in the ResultSet.
+	 * @param memoryBudget number of bytes the deduplication may use in memory: a quarter for the Bloom filter, the rest 
+	 * for the exact set of keys before it is written to disk.
+	 */
+	Deduplicator(int[] keyColumns, long memoryBudget) {
+		this.keyColumns = keyColumns;
+		long filterBudget = memoryBudget / 4;
+		filter = new ScalableBloomFilter(EXPECTED_KEYS, FALSE_POSITIVE_RATE, filterBudget);
+		keys = new SpillableKeySet(memoryBudget - filterBudget);
+	}
+
+	/**
+	 * Check if the key of the current row was seen before, and remember it.
+	 * 
+	 * @param resultSet positioned on the row.
+	 * @return true when the key of the row was seen before.
+	 * @throws SQLException
+	 */
+	boolean isDuplicate(ResultSet resultSet) throws SQLException {
+		key.setLength(0);
+		for (int i = 0; i < keyColumns.length; i++) {
+			String value = resultSet.getString(keyColumns[i]);
+			// separate the values, and NULL from an empty value.
+			key.append(value == null ? '\u0001' : '\u0000');
+			if (value != null) {
+				key.append(value);
+			}
+		}
+		String rowKey = key.toString();
+		long hash1 = hash1(rowKey);
+		long hash2 = hash2(rowKey);
+		if (filter.mightContain(hash1, hash2) && keys.contains(rowKey, hash1)) {
+			duplicates++;
+			return true;
+		}
+		filter.add(hash1, hash2);
+		keys.add(rowKey);
+		return false;
+	}
+
+	/**
+	 * @param key String
+	 * @return 64 bit FNV-1a hash of the key.
+	 */
+	static long hash1(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * @param key String
+	 * @return a second 64 bit hash of the key, independent of hash1(). Always odd.
+	 */
+	private static long hash2(String key) {
+		long hash = 0x9e3779b97f4a7c15L;
+		for (int i = 0; i < key.length(); i++) {
+			hash = (hash + key.charAt(i)) * 0xbf58476d1ce4e5b9L;
+			hash ^= hash >>> 31;
+		}
+		return hash | 1;
+	}
+
+	/**
+	 * @return the number of rows that had a key that was seen before.
+	 */
+	long getDuplicateCount() {
+		return duplicates;
+	}
+
+	/**
+	 * Remove the keys that were written to disk.
+	 */
+	void close() {
+		keys.close();
+	}
+}
@@ -1,70 +1,75 @@
-/*
- * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
- * All rights reserved.
- *
- * Redistribution and use in source and binary forms, with or without
- * modification, are permitted provided that the following conditions are met:
- *
- *     * Redistributions of source code must retain the above copyright notice,
- * 	  this list of conditions and the following disclaimer.
- *     * Redistributions in binary form must reproduce the above copyright notice,
- * 	  this list of conditions and the following disclaimer in the documentation
- * 	  and/or other materials provided with the distribution.
- *     * Neither the name of mwensveen.nl nor the names of its contributors may be
- * 	  used to endorse or promote products derived from this software without
- * 	  specific prior written permission.
- *
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
- * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
- * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
- * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
- * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
- * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
- * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
- * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
- * POSSIBILITY OF SUCH DAMAGE.
- */
-package nl.mwensveen.csv.db;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-
-/**
- * This class manages the database connection for the DbCreation util.
- * 
- * @author mwensveen
- * 
- */
-public class DefaultDbConnectionManager implements DbConnectionManager {
-	private DbConfig config;
-	private Connection connection;
-
-	/**
-	 * @see nl.mwensveen.csv.db.DbConnectionManager#getConnection()
-	 */
-	public Connection getConnection() throws SQLException {
-		if (connection == null) {
-			connection = DriverManager.getConnection(config.getJdbcUrl());
-		}
-		return connection;
-	}
-
-	/**
-	 * @see nl.mwensveen.csv.db.DbConnectionManager#close()
-	 */
-	public void close() throws SQLException {
-		if (connection != null && !connection.isClosed()) {
-			connection.close();
-		}
-	}
-
-	/**
-	 * @see nl.mwensveen.csv.db.DbConnectionManager#setConfig(nl.mwensveen.csv.db.DbConfig)
-	 */
-	public void setConfig(DbConfig config) {
-		this.config = config;
-	}
-
-}
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * This class manages the database connection for the DbCreation util.
+ * Every thread gets its own connection, so it can be used by parallel insert workers.
+ * 
+ * @author mwensveen
+ * 
+ */
+public class DefaultDbConnectionManager implements DbConnectionManager {
+	private DbConfig config;
+	private ThreadLocal<Connection> connection = new ThreadLocal<Connection>();
+
+	/**
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#getConnection()
+	 */
+	public Connection getConnection() throws SQLException {
+		Connection threadConnection = connection.get();
+		if (threadConnection == null) {
+			threadConnection = DriverManager.getConnection(config.getJdbcUrl());
+			connection.set(threadConnection);
+		}
+		return threadConnection;
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#close()
+	 */
+	public void close() throws SQLException {
+		Connection threadConnection = connection.get();
+		connection.remove();
+		if (threadConnection != null && !threadConnection.isClosed()) {
+			threadConnection.close();
+		}
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#setConfig(nl.mwensveen.csv.db.DbConfig)
+	 */
+	public void setConfig(DbConfig config) {
+		this.config = config;
+	}
+
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nl.mwensveen.csv.CSVConfig;
+import nl.mwensveen.csv.CSVWriter;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Exports the table of the DbConfig to csv with a number of threads. Every thread reads a part of the table, 
+ * selected by a condition, on its own connection and writes it with a CSVWriter to its own part file.
+ * The conditions are either added with addCondition(), or made by splitting the range between the minimum and 
+ * maximum of a numeric keyColumn into equal parts.
+ * The part files are named after the file, with "-1", "-2", ... before the extension (orders.csv.gz gives 
+ * orders-1.csv.gz). With singleFile they are appended in order to the file and removed afterwards, only the first 
+ * part then holds the columnNames. Gzip compressed parts can be appended as they are.
+ * The connection of a thread is obtained from, and closed with, the DbConnectionManager on that thread.
+ * 
+ * @author Micha Wensveen
+ */
+public class ParallelExporter {
+	private final Logger log = Logger.getLogger(ParallelExporter.class);
+	private final CSVConfig csvConfig;
+	private final DbConfig config;
+	private int partitions = 4;
+	private String keyColumn;
+	private List<String> conditions = new ArrayList<String>();
+	private boolean singleFile = true;
+	private int fetchSize = 10000;
+	private boolean gzip;
+	private volatile Exception failure;
+
+	/**
+	 * Construct an exporter.
+	 * 
+	 * @param csvConfig CSVConfig with the seperator, decimalPoint, datePattern and startWithMetaDataRow to write.
+	 * @param config DbConfig with the jdbcUrl or dbConnectionManager and the tableName to export.
+	 */
+	public ParallelExporter(CSVConfig csvConfig, DbConfig config) {
+		this.csvConfig = csvConfig;
+		this.config = config;
+		if (config.getDbConnectionManager() == null) {
+			// use the default one
+			config.setDbConnectionManager(new DefaultDbConnectionManager());
+		}
+		config.getDbConnectionManager().setConfig(config);
+	}
+
+	/**
+	 * Export the table.
+	 * 
+	 * @param file the csv-file to write, or the name of the part files when singleFile is false.
+	 * @return the number of rows written.
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	public long export(final File file) throws SQLException, IOException {
+		long start = System.currentTimeMillis();
+		final String tableName = config.getTableName();
+		final List<String> partConditions = makeConditions(tableName);
+		final List<File> partFiles = new ArrayList<File>();
+		final AtomicLong rows = new AtomicLong();
+		List<Thread> threads = new ArrayList<Thread>();
+		failure = null;
+		for (int i = 0; i < partConditions.size(); i++) {
+			partFiles.add(makePartFile(file, i + 1));
+			final int part = i;
+			Thread thread = new Thread(new Runnable() {
+				public void run() {
+					try {
+						rows.addAndGet(exportPart(tableName, partConditions.get(part), partFiles.get(part), part, file));
+					} catch (Exception e) {
+						log.error("Export of " + partFiles.get(part) + " failed", e);
+						synchronized (ParallelExporter.this) {
+							if (failure == null) {
+								failure = e;
+							}
+						}
+					}
+				}
+			}, "ParallelExporter-" + (i + 1));
+			thread.setDaemon(true);
+			threads.add(thread);
+			thread.start();
+		}
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the export threads", e);
+		}
+		try {
+			checkFailure();
+			if (singleFile) {
+				appendParts(partFiles, file);
+			}
+		} finally {
+			if (singleFile) {
+				for (File partFile : partFiles) {
+					partFile.delete();
+				}
+			}
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Exported " + rows.get() + " rows of " + tableName + " in " + partConditions.size() + " parts in "
+					+ (System.currentTimeMillis() - start) + " ms");
+		}
+		return rows.get();
+	}
+
+	/**
+	 * Write the rows of one part with a CSVWriter on the current thread.
+	 */
+	private long exportPart(String tableName, String condition, File partFile, int part, File file) throws SQLException, IOException {
+		CSVWriter writer = new CSVWriter(csvConfig);
+		writer.setFetchSize(fetchSize);
+		writer.setGzip(gzip || file.getName().endsWith(".gz"));
+		writer.setSkipMetaDataRow(singleFile && part > 0);
+		try {
+			Connection connection = config.getDbConnectionManager().getConnection();
+			return writer.export(connection, tableName, condition, partFile);
+		} finally {
+			config.getDbConnectionManager().close();
+		}
+	}
+
+	/**
+	 * @return the added conditions, or the conditions that split the range of the keyColumn in partitions.
+	 */
+	private List<String> makeConditions(String tableName) throws SQLException {
+		if (!conditions.isEmpty()) {
+			return conditions;
+		}
+		List<String> result = new ArrayList<String>();
+		if (partitions <= 1) {
+			result.add(null);
+			return result;
+		}
+		if (keyColumn == null) {
+			throw new SQLException("A keyColumn or conditions are needed to export " + tableName + " in parts");
+		}
+		long min;
+		long max;
+		Connection connection = config.getDbConnectionManager().getConnection();
+		try {
+			Statement statement = connection.createStatement();
+			try {
+				ResultSet resultSet = statement.executeQuery("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM " + tableName);
+				resultSet.next();
+				min = resultSet.getLong(1);
+				boolean empty = resultSet.wasNull();
+				max = resultSet.getLong(2);
+				resultSet.close();
+				if (empty) {
+					result.add(null);
+					return result;
+				}
+			} finally {
+				statement.close();
+			}
+		} finally {
+			config.getDbConnectionManager().close();
+		}
+		// the first part also gets the rows without a key, the last one all rows from its lower bound.
+		long step = (max - min) / partitions + 1;
+		for (int i = 0; i < partitions; i++) {
+			long lower = min + i * step;
+			long upper = lower + step;
+			if (i == 0) {
+				result.add("(" + keyColumn + " < " + upper + " OR " + keyColumn + " IS NULL)");
+			} else if (i == partitions - 1) {
+				result.add(keyColumn + " >= " + lower);
+			} else {
+				result.add(keyColumn + " >= " + lower + " AND " + keyColumn + " < " + upper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the file with "-" and the number of the part before the extension.
+	 */
+	private File makePartFile(File file, int part) {
+		String name = file.getName();
+		int extension = name.indexOf('.');
+		if (extension < 0) {
+			extension = name.length();
+		}
+		return new File(file.getAbsoluteFile().getParentFile(), name.substring(0, extension) + "-" + part + name.substring(extension));
+	}
+
+	/**
+	 * Append the part files in order to the file.
+	 */
+	private void appendParts(List<File> partFiles, File file) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		OutputStream out = new FileOutputStream(file);
+		try {
+			for (File partFile : partFiles) {
+				InputStream in = new FileInputStream(partFile);
+				try {
+					int length;
+					while ((length = in.read(buffer)) > 0) {
+						out.write(buffer, 0, length);
+					}
+				} finally {
+					in.close();
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private void checkFailure() throws SQLException, IOException {
+		if (failure instanceof SQLException) {
+			throw (SQLException) failure;
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		if (failure != null) {
+			throw new SQLException("Export failed", failure);
+		}
+	}
+
+	/**
+	 * Number of parts the range of the keyColumn is split in, which is the number of threads and connections used.
+	 * Default = 4
+	 * @param partitions the partitions to set
+	 */
+	public void setPartitions(int partitions) {
+		this.partitions = partitions;
+	}
+
+	/**
+	 * @return the partitions
+	 */
+	public int getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * The numeric column whose range between its minimum and maximum is split in partitions.
+	 * @param keyColumn the keyColumn to set
+	 */
+	public void setKeyColumn(String keyColumn) {
+		this.keyColumn = keyColumn;
+	}
+
+	/**
+	 * @return the keyColumn
+	 */
+	public String getKeyColumn() {
+		return keyColumn;
+	}
+
+	/**
+	 * Add the sql condition of the where clause of a part. When conditions are added, they are used instead of the 
+	 * keyColumn and partitions. The conditions together must select every row once.
+	 * 
+	 * @param condition e.g. "REGION = 'EU'"
+	 */
+	public void addCondition(String condition) {
+		conditions.add(condition);
+	}
+
+	/**
+	 * @return the added conditions
+	 */
+	public List<String> getConditions() {
+		return conditions;
+	}
+
+	/**
+	 * Indicates that the parts are appended to one file. Otherwise the part files are kept, each with the 
+	 * columnNames when the CSVConfig startWithMetaDataRow is set.
+	 * Default = true
+	 * @param singleFile the singleFile to set
+	 */
+	public void setSingleFile(boolean singleFile) {
+		this.singleFile = singleFile;
+	}
+
+	/**
+	 * @return the singleFile
+	 */
+	public boolean isSingleFile() {
+		return singleFile;
+	}
+
+	/**
+	 * Number of rows the JDBC driver fetches at once.
+	 * Default = 10000
+	 * @param fetchSize the fetchSize to set
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * @return the fetchSize
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Indicates that the files are compressed with gzip, also when the name does not end with ".gz".
+	 * Default = false
+	 * @param gzip the gzip to set
+	 */
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	/**
+	 * @return the gzip
+	 */
+	public boolean isGzip() {
+		return gzip;
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Inserts rows with a number of worker threads, each with its own connection, PreparedStatement and batch.
+ * The rows are handed over in chunks of recorded parameters (see ParameterRecorder), so the DbTypes (and the 
+ * extraColumn) are still evaluated in the order of the ResultSet by the thread that reads it.
+ * The connection of a worker is obtained from, and closed with, the DbConnectionManager on the worker thread. 
+ * A worker that fails rolls back its uncommitted rows on that connection, on its own thread.
+ * 
+ * @author Micha Wensveen
+ */
+class ParallelInserter {
+	/** Number of rows handed to a worker at once when no batchSize is configured. */
+	static final int DEFAULT_CHUNK_SIZE = 100;
+	/** Marks the end of the rows for a worker. */
+	private static final ParameterRecorder END = new ParameterRecorder();
+
+	private final Logger log = Logger.getLogger(ParallelInserter.class);
+	private final DbConfig config;
+	private final String insertStatement;
+	private final BlockingQueue<ParameterRecorder> queue;
+	private final List<Thread> workers = new ArrayList<Thread>();
+	private final AtomicLong committedRows = new AtomicLong();
+	private final PipelineStatistics statistics;
+	private volatile SQLException failure;
+	private boolean finished;
+
+	/**
+	 * Start the workers.
+	 * 
+	 * @param config DbConfig
+	 * @param insertStatement the sql of the PreparedStatement that inserts one row.
+	 * @param workerCount number of worker threads.
+	 * @param statistics PipelineStatistics that keeps track of the insert stage.
+	 */
+	ParallelInserter(DbConfig config, String insertStatement, int workerCount, PipelineStatistics statistics) {
+		this.config = config;
+		this.insertStatement = insertStatement;
+		this.statistics = statistics;
+		queue = new ArrayBlockingQueue<ParameterRecorder>(workerCount * 2);
+		for (int i = 0; i < workerCount; i++) {
+			Thread worker = new Thread(new Runnable() {
+				public void run() {
+					work();
+				}
+			}, "DbCreationUtil-worker-" + (i + 1));
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Hand a chunk of rows to the workers. Blocks while all workers are busy.
+	 * 
+	 * @param rows ParameterRecorder with one or more ended rows.
+	 * @throws SQLException when a worker has failed.
+	 */
+	void submit(ParameterRecorder rows) throws SQLException {
+		try {
+			while (!queue.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while handing rows to the insert workers", e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Wait until all workers have inserted and committed their rows and closed their connections.
+	 * 
+	 * @throws SQLException the first failure of a worker.
+	 */
+	void finish() throws SQLException {
+		if (finished) {
+			checkFailure();
+			return;
+		}
+		finished = true;
+		try {
+			for (int i = 0; i < workers.size(); i++) {
+				while (failure == null && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+					// wait for a free place in the queue.
+				}
+			}
+			if (failure != null) {
+				// the workers stop on their own, make sure none is waiting for rows.
+				queue.clear();
+				for (int i = 0; i < workers.size(); i++) {
+					queue.offer(END);
+				}
+			}
+			for (Thread worker : workers) {
+				worker.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the insert workers", e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Stop the workers because the load failed elsewhere. The workers roll back their uncommitted rows.
+	 * 
+	 * @param cause the reason the load failed.
+	 */
+	void abort(SQLException cause) {
+		synchronized (this) {
+			if (failure == null) {
+				failure = cause;
+			}
+		}
+		try {
+			finish();
+		} catch (SQLException e) {
+			// this is the failure that was just registered, or an earlier one of a worker.
+		}
+	}
+
+	/**
+	 * @return the number of rows committed by the workers.
+	 */
+	long getCommittedRowCount() {
+		return committedRows.get();
+	}
+
+	private void checkFailure() throws SQLException {
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Insert the rows from the queue until the end is reached or another worker failed.
+	 */
+	private void work() {
+		DbConnectionManager connectionManager = config.getDbConnectionManager();
+		long uncommitted = 0;
+		Connection connection = null;
+		try {
+			connection = connectionManager.getConnection();
+			if (!config.isAutoCommit()) {
+				connection.setAutoCommit(false);
+			}
+			PreparedStatement preparedStatement = connection.prepareStatement(insertStatement);
+			try {
+				while (failure == null) {
+					ParameterRecorder rows = queue.take();
+					if (rows == END) {
+						break;
+					}
+					insert(preparedStatement, rows);
+					if (config.isAutoCommit()) {
+						committedRows.addAndGet(rows.getRowCount());
+						continue;
+					}
+					uncommitted += rows.getRowCount();
+					if (config.getCommitInterval() > 0 && uncommitted >= config.getCommitInterval()) {
+						connection.commit();
+						committedRows.addAndGet(uncommitted);
+						uncommitted = 0;
+					}
+				}
+				if (!config.isAutoCommit()) {
+					if (failure == null) {
+						connection.commit();
+						committedRows.addAndGet(uncommitted);
+					} else {
+						// another worker failed.
+						connection.rollback();
+					}
+				}
+			} finally {
+				preparedStatement.close();
+			}
+		} catch (SQLException e) {
+			fail(connection, e);
+		} catch (InterruptedException e) {
+			fail(connection, new SQLException("Insert worker interrupted", e));
+		} catch (RuntimeException e) {
+			fail(connection, new SQLException("Error inserting rows", e));
+		} finally {
+			try {
+				connectionManager.close();
+			} catch (SQLException e) {
+				log.error("Error closing connection of insert worker", e);
+			}
+		}
+	}
+
+	/**
+	 * Insert one chunk of rows, as a batch when a batchSize is configured.
+	 */
+	private void insert(PreparedStatement preparedStatement, ParameterRecorder rows) throws SQLException {
+		long start = System.nanoTime();
+		boolean batch = config.getBatchSize() > 1;
+		for (int i = 0; i < rows.getRowCount(); i++) {
+			rows.replayRow(preparedStatement, i);
+			if (batch) {
+				preparedStatement.addBatch();
+			} else {
+				preparedStatement.execute();
+			}
+		}
+		if (batch) {
+			DbCreationUtil.checkUpdateCounts(preparedStatement.executeBatch(), rows.getRowCount());
+		}
+		statistics.inserted(rows.getRowCount(), System.nanoTime() - start);
+	}
+
+	/**
+	 * Roll back the uncommitted rows of a worker and register the failure, so the other workers stop.
+	 * Called on the thread of the worker.
+	 * 
+	 * @param connection the connection of the worker, null when it could not be obtained.
+	 * @param cause the reason the worker failed.
+	 */
+	private void fail(Connection connection, SQLException cause) {
+		log.error("Insert worker " + Thread.currentThread().getName() + " failed", cause);
+		if (connection != null && !config.isAutoCommit()) {
+			try {
+				connection.rollback();
+			} catch (SQLException e) {
+				log.error("Error during rollback", e);
+			}
+		}
+		synchronized (this) {
+			if (failure == null) {
+				failure = cause;
+			}
+		}
+	}
+}
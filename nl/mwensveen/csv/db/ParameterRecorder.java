@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Records the parameters that a DbType sets on a PreparedStatement, so they can be set on the real 
+ * PreparedStatement later. Used by the DbCreationUtil for multi-row inserts, where the number of rows 
+ * in the statement is only known when it is executed, and to hand rows over to parallel insert workers.
+ * The parameters are kept in arrays: the type of the set method and the index of every parameter, a primitive 
+ * value as long and an object value. Only the values of object types (String, BigDecimal, Date, ...) are objects.
+ * 
+ * @author Micha Wensveen
+ */
+class ParameterRecorder {
+	private static final int INITIAL_SIZE = 64;
+
+	private byte[] types = new byte[INITIAL_SIZE];
+	private int[] indexes = new int[INITIAL_SIZE];
+	private long[] values = new long[INITIAL_SIZE];
+	private Object[] objects = new Object[INITIAL_SIZE];
+	/** Number of recorded parameters. */
+	private int size;
+	/** For every ended row the number of recorded parameters up to and including that row. */
+	private int[] rowEnds = new int[16];
+	private int rowCount;
+	private final PreparedStatement preparedStatement = new RecordingStatement() {
+		@Override
+		void record(int parameterIndex, byte type, long value, Object object) {
+			add(parameterIndex, type, value, object);
+		}
+	};
+
+	/**
+	 * @return the PreparedStatement that records the parameters that are set on it.
+	 */
+	PreparedStatement getPreparedStatement() {
+		return preparedStatement;
+	}
+
+	private void add(int parameterIndex, byte type, long value, Object object) {
+		if (size == types.length) {
+			int length = size * 2;
+			types = Arrays.copyOf(types, length);
+			indexes = Arrays.copyOf(indexes, length);
+			values = Arrays.copyOf(values, length);
+			objects = Arrays.copyOf(objects, length);
+		}
+		types[size] = type;
+		indexes[size] = parameterIndex;
+		values[size] = value;
+		objects[size] = object;
+		size++;
+	}
+
+	/**
+	 * Set the recorded parameters of one row on the given PreparedStatement.
+	 * 
+	 * @param target PreparedStatement
+	 * @param row the number of the row (starting with 0), as marked with endRow().
+	 * @throws SQLException
+	 */
+	void replayRow(PreparedStatement target, int row) throws SQLException {
+		replay(target, row == 0 ? 0 : rowEnds[row - 1], rowEnds[row]);
+	}
+
+	/**
+	 * Set the recorded parameters of one row on the given PreparedStatement, at other parameter indexes.
+	 * 
+	 * @param target PreparedStatement
+	 * @param row the number of the row (starting with 0), as marked with endRow().
+	 * @param parameterIndexes for every recorded parameter index the index in the target, 0 to skip the parameter.
+	 * @param offset number of parameters in the target before the first parameter of this row.
+	 * @throws SQLException
+	 */
+	void replayRow(PreparedStatement target, int row, int[] parameterIndexes, int offset) throws SQLException {
+		int end = rowEnds[row];
+		for (int i = row == 0 ? 0 : rowEnds[row - 1]; i < end; i++) {
+			int index = parameterIndexes[indexes[i]];
+			if (index > 0) {
+				RecordingStatement.set(target, index + offset, types[i], values[i], objects[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param row the number of the row (starting with 0), as marked with endRow().
+	 * @param parameterIndexes for every recorded parameter index a number greater than 0 when the parameter is part of the key.
+	 * @return a String that is the same for two rows that have the same values for the parameters of the key.
+	 */
+	String getKey(int row, int[] parameterIndexes) {
+		StringBuilder key = new StringBuilder();
+		int end = rowEnds[row];
+		for (int i = row == 0 ? 0 : rowEnds[row - 1]; i < end; i++) {
+			if (parameterIndexes[indexes[i]] > 0) {
+				key.append(indexes[i]).append(':').append(types[i]).append(':');
+				if (types[i] < RecordingStatement.BIG_DECIMAL) {
+					key.append(values[i]);
+				} else if (objects[i] == null) {
+					key.append('\u0001');
+				} else if (objects[i] instanceof byte[]) {
+					key.append(Arrays.toString((byte[]) objects[i]));
+				} else {
+					key.append(objects[i]);
+				}
+				key.append('\u0000');
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Set the recorded parameters on the given PreparedStatement.
+	 * 
+	 * @param target PreparedStatement
+	 * @throws SQLException
+	 */
+	void replay(PreparedStatement target) throws SQLException {
+		replay(target, 0, size);
+	}
+
+	private void replay(PreparedStatement target, int start, int end) throws SQLException {
+		for (int i = start; i < end; i++) {
+			RecordingStatement.set(target, indexes[i], types[i], values[i], objects[i]);
+		}
+	}
+
+	/**
+	 * Mark the end of the parameters of a row.
+	 */
+	void endRow() {
+		if (rowCount == rowEnds.length) {
+			rowEnds = Arrays.copyOf(rowEnds, rowCount * 2);
+		}
+		rowEnds[rowCount++] = size;
+	}
+
+	/**
+	 * Forget the parameters that were recorded after the last ended row.
+	 */
+	void discardRow() {
+		int end = rowCount == 0 ? 0 : rowEnds[rowCount - 1];
+		Arrays.fill(objects, end, size, null);
+		size = end;
+	}
+
+	/**
+	 * @return the number of rows that were ended with endRow().
+	 */
+	int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Forget all recorded parameters.
+	 */
+	void clear() {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+		rowCount = 0;
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of rows and time spent per stage of a load by the DbCreationUtil, so it can be seen which stage 
+ * limits the throughput. The stages are:
+ * <ul>
+ * <li>parse: the thread that reads the csv-file and hands the rows to the converters (pipeline only).</li>
+ * <li>convert: determining the values of the columns with the DbTypes.</li>
+ * <li>insert: setting the values on the PreparedStatement and executing it.</li>
+ * </ul>
+ * The time of a stage is the time its threads were busy, summed over all threads of that stage. The time a 
+ * stage waits for a full queue of the next stage is counted separately. 
+ * The statistics are only collected when parallel workers or the pipeline are used.
+ * 
+ * @author Micha Wensveen
+ */
+public class PipelineStatistics {
+	private final AtomicLong parsedRows = new AtomicLong();
+	private final AtomicLong parseNanos = new AtomicLong();
+	private final AtomicLong parseWaitNanos = new AtomicLong();
+	private final AtomicLong convertedRows = new AtomicLong();
+	private final AtomicLong convertNanos = new AtomicLong();
+	private final AtomicLong convertWaitNanos = new AtomicLong();
+	private final AtomicLong insertedRows = new AtomicLong();
+	private final AtomicLong insertNanos = new AtomicLong();
+
+	void parsed(long rows, long nanos, long waitNanos) {
+		parsedRows.addAndGet(rows);
+		parseNanos.addAndGet(nanos);
+		parseWaitNanos.addAndGet(waitNanos);
+	}
+
+	void converted(long rows, long nanos, long waitNanos) {
+		convertedRows.addAndGet(rows);
+		convertNanos.addAndGet(nanos);
+		convertWaitNanos.addAndGet(waitNanos);
+	}
+
+	void inserted(long rows, long nanos) {
+		insertedRows.addAndGet(rows);
+		insertNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * @return the number of rows handed to the converters by the parse stage.
+	 */
+	public long getParsedRows() {
+		return parsedRows.get();
+	}
+
+	/**
+	 * @return the time in nanoseconds the parse stage was busy.
+	 */
+	public long getParseNanos() {
+		return parseNanos.get();
+	}
+
+	/**
+	 * @return the time in nanoseconds the parse stage waited because the converters were busy.
+	 */
+	public long getParseWaitNanos() {
+		return parseWaitNanos.get();
+	}
+
+	/**
+	 * @return the number of rows converted.
+	 */
+	public long getConvertedRows() {
+		return convertedRows.get();
+	}
+
+	/**
+	 * @return the time in nanoseconds the convert stage was busy.
+	 */
+	public long getConvertNanos() {
+		return convertNanos.get();
+	}
+
+	/**
+	 * @return the time in nanoseconds the convert stage waited because the insert workers were busy.
+	 */
+	public long getConvertWaitNanos() {
+		return convertWaitNanos.get();
+	}
+
+	/**
+	 * @return the number of rows inserted.
+	 */
+	public long getInsertedRows() {
+		return insertedRows.get();
+	}
+
+	/**
+	 * @return the time in nanoseconds the insert stage was busy.
+	 */
+	public long getInsertNanos() {
+		return insertNanos.get();
+	}
+
+	/**
+	 * @return rows per second of busy time of the parse stage.
+	 */
+	public double getParseRowsPerSecond() {
+		return rowsPerSecond(parsedRows.get(), parseNanos.get());
+	}
+
+	/**
+	 * @return rows per second of busy time of the convert stage.
+	 */
+	public double getConvertRowsPerSecond() {
+		return rowsPerSecond(convertedRows.get(), convertNanos.get());
+	}
+
+	/**
+	 * @return rows per second of busy time of the insert stage.
+	 */
+	public double getInsertRowsPerSecond() {
+		return rowsPerSecond(insertedRows.get(), insertNanos.get());
+	}
+
+	private double rowsPerSecond(long rows, long nanos) {
+		if (nanos == 0) {
+			return 0;
+		}
+		return rows * 1000000000.0 / nanos;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "parse: " + getParsedRows() + " rows, " + (long) getParseRowsPerSecond() + " rows/s, waited " + getParseWaitNanos() / 1000000 + " ms; "
+				+ "convert: " + getConvertedRows() + " rows, " + (long) getConvertRowsPerSecond() + " rows/s, waited " + getConvertWaitNanos() / 1000000 + " ms; "
+				+ "insert: " + getInsertedRows() + " rows, " + (long) getInsertRowsPerSecond() + " rows/s";
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+/**
+ * This DbConnectionManager keeps a pool of connections that can be reused by parallel workers and by 
+ * subsequent loads (set the same instance on the DbConfig of every load to the same database).
+ * getConnection() borrows a connection from the pool for the calling thread, close() returns it to the pool.
+ * The pool has a maximum size, connections are validated when they are borrowed and connections that 
+ * are idle for longer than maxIdleTime are closed. Call shutdown() to close all connections.
+ * 
+ * @author Micha Wensveen
+ */
+public class PoolingDbConnectionManager implements DbConnectionManager {
+	private Logger log = Logger.getLogger(PoolingDbConnectionManager.class);
+	private DbConfig config;
+	private int maxSize = 8;
+	private long maxIdleTime = 60000;
+	private long maxWait = 30000;
+	private int validationTimeout = 5;
+	/** Idle connections, the most recently returned first. */
+	private final LinkedList<IdleConnection> idle = new LinkedList<IdleConnection>();
+	/** Connections that are borrowed or idle. */
+	private int openConnections;
+	private boolean shutdown;
+	private final ThreadLocal<Connection> borrowed = new ThreadLocal<Connection>();
+
+	public PoolingDbConnectionManager() {
+		super();
+	}
+
+	public PoolingDbConnectionManager(int maxSize) {
+		super();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Borrow a connection from the pool for the calling thread. Until close() is called, the thread 
+	 * gets the same connection.
+	 * 
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#getConnection()
+	 */
+	public Connection getConnection() throws SQLException {
+		Connection connection = borrowed.get();
+		if (connection == null) {
+			connection = borrow();
+			borrowed.set(connection);
+		}
+		return connection;
+	}
+
+	/**
+	 * Return the connection of the calling thread to the pool. When the connection has no autoCommit, the work 
+	 * that was not committed is rolled back first, so it never ends up in the database or with the next borrower. 
+	 * The DbCreationUtil commits its rows itself before it closes the connection.
+	 * 
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#close()
+	 */
+	public void close() throws SQLException {
+		Connection connection = borrowed.get();
+		if (connection == null) {
+			return;
+		}
+		borrowed.remove();
+		giveBack(connection);
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.DbConnectionManager#setConfig(nl.mwensveen.csv.db.DbConfig)
+	 */
+	public void setConfig(DbConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Close all idle connections. Connections that are still borrowed are closed when they are returned.
+	 * 
+	 * @throws SQLException
+	 */
+	public void shutdown() throws SQLException {
+		List<Connection> toClose = new ArrayList<Connection>();
+		synchronized (this) {
+			shutdown = true;
+			for (IdleConnection idleConnection : idle) {
+				toClose.add(idleConnection.connection);
+			}
+			idle.clear();
+			openConnections -= toClose.size();
+			notifyAll();
+		}
+		closeAll(toClose);
+	}
+
+	/**
+	 * Take a valid idle connection or open a new one. When the pool is at its maximum size, wait at most 
+	 * maxWait milliseconds for a connection to be returned.
+	 */
+	private Connection borrow() throws SQLException {
+		long deadline = System.currentTimeMillis() + maxWait;
+		while (true) {
+			IdleConnection candidate = null;
+			List<Connection> evicted;
+			synchronized (this) {
+				if (shutdown) {
+					throw new SQLException("The connection pool is shut down");
+				}
+				evicted = evictIdle();
+				if (!idle.isEmpty()) {
+					candidate = idle.removeFirst();
+				} else if (openConnections < maxSize) {
+					openConnections++;
+				} else {
+					long wait = deadline - System.currentTimeMillis();
+					if (wait <= 0) {
+						throw new SQLException("No connection available within " + maxWait + " ms (maximum pool size " + maxSize + ")");
+					}
+					try {
+						wait(wait);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new SQLException("Interrupted while waiting for a connection", e);
+					}
+					continue;
+				}
+			}
+			closeAll(evicted);
+			if (candidate == null) {
+				try {
+					return DriverManager.getConnection(config.getJdbcUrl());
+				} catch (SQLException e) {
+					released();
+					throw e;
+				}
+			}
+			if (isValid(candidate.connection)) {
+				return candidate.connection;
+			}
+			discard(candidate.connection);
+		}
+	}
+
+	/**
+	 * Put the connection back in the pool, unless it is closed or cannot be reset.
+	 */
+	private void giveBack(Connection connection) throws SQLException {
+		if (connection.isClosed()) {
+			released();
+			return;
+		}
+		try {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			discard(connection);
+			throw e;
+		}
+		boolean close;
+		synchronized (this) {
+			close = shutdown;
+			if (!close) {
+				idle.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+				notifyAll();
+			}
+		}
+		if (close) {
+			discard(connection);
+		}
+	}
+
+	/**
+	 * Remove the connections that have been idle for too long. Must be called while holding the lock.
+	 * 
+	 * @return the connections that must be closed.
+	 */
+	private List<Connection> evictIdle() {
+		List<Connection> evicted = new ArrayList<Connection>();
+		long oldest = System.currentTimeMillis() - maxIdleTime;
+		Iterator<IdleConnection> iterator = idle.iterator();
+		while (iterator.hasNext()) {
+			IdleConnection idleConnection = iterator.next();
+			if (idleConnection.returned < oldest) {
+				iterator.remove();
+				evicted.add(idleConnection.connection);
+			}
+		}
+		openConnections -= evicted.size();
+		return evicted;
+	}
+
+	private boolean isValid(Connection connection) {
+		try {
+			return connection.isValid(validationTimeout);
+		} catch (SQLException e) {
+			log.warn("Error validating connection", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Close a connection that is no longer part of the pool.
+	 */
+	private void discard(Connection connection) {
+		released();
+		closeAll(Collections.singletonList(connection));
+	}
+
+	private synchronized void released() {
+		openConnections--;
+		notifyAll();
+	}
+
+	private void closeAll(List<Connection> connections) {
+		for (Connection connection : connections) {
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				log.warn("Error closing pooled connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Maximum number of connections (borrowed and idle) in the pool.
+	 * Default = 8
+	 * @param maxSize the maxSize to set
+	 */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the maxSize
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Time in milliseconds after which an idle connection is closed.
+	 * Default = 60000
+	 * @param maxIdleTime the maxIdleTime to set
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * @return the maxIdleTime
+	 */
+	public long getMaxIdleTime() {
+		return maxIdleTime;
+	}
+
+	/**
+	 * Time in milliseconds getConnection() waits for a connection when all connections are borrowed.
+	 * Default = 30000
+	 * @param maxWait the maxWait to set
+	 */
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * @return the maxWait
+	 */
+	public long getMaxWait() {
+		return maxWait;
+	}
+
+	/**
+	 * Time in seconds to wait for the database when an idle connection is validated (Connection.isValid()).
+	 * Default = 5
+	 * @param validationTimeout the validationTimeout to set
+	 */
+	public void setValidationTimeout(int validationTimeout) {
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * @return the validationTimeout
+	 */
+	public int getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * @return the number of connections that are borrowed or idle.
+	 */
+	public synchronized int getOpenConnections() {
+		return openConnections;
+	}
+
+	/**
+	 * A connection in the pool and the time it was returned.
+	 */
+	private static class IdleConnection {
+		private final Connection connection;
+		private final long returned;
+
+		IdleConnection(Connection connection, long returned) {
+			this.connection = connection;
+			this.returned = returned;
+		}
+	}
+}
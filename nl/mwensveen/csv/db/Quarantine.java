@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Keeps the rows that could not be inserted, with the reason, in a quarantine file and/or a quarantine table.
+ * The file has one line per row: the row number, the SQLState, the message and the raw data. The table has the 
+ * columns ROW_NUMBER, SQL_STATE, SQL_ERROR and RAW_DATA. The row number is the line in the file where the row 
+ * starts and the raw data is the text of the row as in the file (a quoted field can make it more lines). When the 
+ * rows do not come from the CSVParser, the row number is the number of the row in the ResultSet and the raw data 
+ * are the values, comma separated and between double quotes when needed.
+ * 
+ * @author Micha Wensveen
+ */
+class Quarantine {
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private final Logger log = Logger.getLogger(Quarantine.class);
+	private final DbConfig config;
+	private final Connection connection;
+	private Writer writer;
+	private PreparedStatement insertStatement;
+	private long rejectedRows;
+
+	/**
+	 * @param config DbConfig with the quarantineFile, quarantineTable and maxRejects.
+	 * @param connection the connection used for the quarantine table.
+	 */
+	Quarantine(DbConfig config, Connection connection) {
+		this.config = config;
+		this.connection = connection;
+	}
+
+	/**
+	 * @param tableName the name of the quarantine table.
+	 * @return the statement that creates the quarantine table.
+	 */
+	static String makeCreateTableStatement(String tableName) {
+		return "CREATE TABLE " + tableName + "(ROW_NUMBER INTEGER, SQL_STATE CHAR(5), SQL_ERROR VARCHAR(" + MAX_ERROR_LENGTH
+				+ "), RAW_DATA long varchar)";
+	}
+
+	/**
+	 * Quarantine a row.
+	 * 
+	 * @param rowNumber the line in the file, or the number of the row in the ResultSet.
+	 * @param values the values of the row.
+	 * @param text the text of the row as in the file, null when not known.
+	 * @param cause the reason the row could not be inserted.
+	 * @throws SQLException when the row cannot be quarantined, or when more than maxRejects rows were rejected.
+	 */
+	void reject(int rowNumber, String[] values, String text, SQLException cause) throws SQLException {
+		rejectedRows++;
+		if (config.getMaxRejects() > 0 && rejectedRows > config.getMaxRejects()) {
+			throw new SQLException("Load stopped, more than " + config.getMaxRejects() + " rows were rejected. Last rejected row " + rowNumber + ": "
+					+ cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Rejected row " + rowNumber + ": " + cause.getMessage());
+		}
+		String data = text != null ? text : toDelimited(values);
+		String error = cause.getMessage() == null ? cause.toString() : cause.getMessage();
+		if (config.getQuarantineFile() != null) {
+			writeToFile(rowNumber, cause.getSQLState(), error, data);
+		}
+		if (config.getQuarantineTable() != null) {
+			insertIntoTable(rowNumber, cause.getSQLState(), error, data);
+		}
+	}
+
+	private void writeToFile(int rowNumber, String sqlState, String error, String data) throws SQLException {
+		try {
+			if (writer == null) {
+				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(config.getQuarantineFile(), true), "UTF-8"));
+			}
+			StringBuilder line = new StringBuilder();
+			line.append(rowNumber).append(',');
+			appendValue(line, sqlState);
+			line.append(',');
+			appendValue(line, error);
+			line.append(',');
+			line.append(data);
+			line.append('\n');
+			writer.write(line.toString());
+			writer.flush();
+		} catch (IOException e) {
+			throw new SQLException("Cannot write to the quarantine file " + config.getQuarantineFile(), e);
+		}
+	}
+
+	private void insertIntoTable(int rowNumber, String sqlState, String error, String data) throws SQLException {
+		if (insertStatement == null) {
+			insertStatement = connection.prepareStatement("insert into " + config.getQuarantineTable()
+					+ " (ROW_NUMBER, SQL_STATE, SQL_ERROR, RAW_DATA) values (?, ?, ?, ?)");
+		}
+		insertStatement.setInt(1, rowNumber);
+		if (sqlState == null) {
+			insertStatement.setNull(2, Types.CHAR);
+		} else {
+			insertStatement.setString(2, sqlState);
+		}
+		insertStatement.setString(3, error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+		insertStatement.setString(4, data);
+		insertStatement.executeUpdate();
+	}
+
+	/**
+	 * @return the values, comma separated and between double quotes when needed.
+	 */
+	private String toDelimited(String[] values) {
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				data.append(',');
+			}
+			appendValue(data, values[i]);
+		}
+		return data.toString();
+	}
+
+	private void appendValue(StringBuilder line, String value) {
+		if (value == null) {
+			return;
+		}
+		boolean delimit = value.length() == 0;
+		for (int i = 0; i < value.length() && !delimit; i++) {
+			char c = value.charAt(i);
+			delimit = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!delimit) {
+			line.append(value);
+			return;
+		}
+		line.append('"');
+		line.append(value.replace("\"", "\"\""));
+		line.append('"');
+	}
+
+	/**
+	 * @return the number of rejected rows.
+	 */
+	long getRejectedRows() {
+		return rejectedRows;
+	}
+
+	/**
+	 * Close the quarantine file and statement.
+	 */
+	void close() {
+		try {
+			if (writer != null) {
+				writer.close();
+			}
+		} catch (IOException e) {
+			log.warn("Error closing the quarantine file", e);
+		}
+		writer = null;
+		try {
+			if (insertStatement != null) {
+				insertStatement.close();
+			}
+		} catch (SQLException e) {
+			log.warn("Error closing the quarantine statement", e);
+		}
+		insertStatement = null;
+	}
+}
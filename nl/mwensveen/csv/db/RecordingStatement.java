@@ -0,0 +1,964 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A PreparedStatement that does not execute anything, but passes the parameters that are set on it to record(): 
+ * the type of the set method, a primitive value as long and an object value. set() sets such a recorded parameter 
+ * on another PreparedStatement. The setXxx(parameterIndex, value) methods the DbTypes use are supported, all other 
+ * methods throw a SQLException.
+ * 
+ * @author Micha Wensveen
+ */
+abstract class RecordingStatement implements PreparedStatement {
+	static final byte NULL = 0;
+	static final byte BOOLEAN = 1;
+	static final byte BYTE = 2;
+	static final byte SHORT = 3;
+	static final byte INT = 4;
+	static final byte LONG = 5;
+	static final byte FLOAT = 6;
+	static final byte DOUBLE = 7;
+	static final byte BIG_DECIMAL = 8;
+	static final byte STRING = 9;
+	static final byte NSTRING = 10;
+	static final byte BYTES = 11;
+	static final byte DATE = 12;
+	static final byte TIME = 13;
+	static final byte TIMESTAMP = 14;
+	static final byte OBJECT = 15;
+	static final byte OBJECT_WITH_TYPE = 16;
+
+	/**
+	 * Record a parameter.
+	 * 
+	 * @param parameterIndex the index of the parameter.
+	 * @param type the type of the set method.
+	 * @param value the value of a primitive type (float and double as their bits), or the sqlType.
+	 * @param object the value of an object type.
+	 */
+	abstract void record(int parameterIndex, byte type, long value, Object object);
+
+	/**
+	 * Set a recorded parameter on a PreparedStatement.
+	 * 
+	 * @param target PreparedStatement
+	 * @param parameterIndex the index of the parameter in the target.
+	 * @param type the type of the set method.
+	 * @param value the value of a primitive type, or the sqlType.
+	 * @param object the value of an object type.
+	 * @throws SQLException
+	 */
+	static void set(PreparedStatement target, int parameterIndex, byte type, long value, Object object) throws SQLException {
+		switch (type) {
+		case NULL:
+			target.setNull(parameterIndex, (int) value);
+			break;
+		case BOOLEAN:
+			target.setBoolean(parameterIndex, value != 0);
+			break;
+		case BYTE:
+			target.setByte(parameterIndex, (byte) value);
+			break;
+		case SHORT:
+			target.setShort(parameterIndex, (short) value);
+			break;
+		case INT:
+			target.setInt(parameterIndex, (int) value);
+			break;
+		case LONG:
+			target.setLong(parameterIndex, value);
+			break;
+		case FLOAT:
+			target.setFloat(parameterIndex, Float.intBitsToFloat((int) value));
+			break;
+		case DOUBLE:
+			target.setDouble(parameterIndex, Double.longBitsToDouble(value));
+			break;
+		case BIG_DECIMAL:
+			target.setBigDecimal(parameterIndex, (BigDecimal) object);
+			break;
+		case STRING:
+			target.setString(parameterIndex, (String) object);
+			break;
+		case NSTRING:
+			target.setNString(parameterIndex, (String) object);
+			break;
+		case BYTES:
+			target.setBytes(parameterIndex, (byte[]) object);
+			break;
+		case DATE:
+			target.setDate(parameterIndex, (Date) object);
+			break;
+		case TIME:
+			target.setTime(parameterIndex, (Time) object);
+			break;
+		case TIMESTAMP:
+			target.setTimestamp(parameterIndex, (Timestamp) object);
+			break;
+		case OBJECT:
+			target.setObject(parameterIndex, object);
+			break;
+		case OBJECT_WITH_TYPE:
+			target.setObject(parameterIndex, object, (int) value);
+			break;
+		default:
+			throw new SQLException("Unknown parameter type " + type);
+		}
+	}
+
+	/**
+	 * @param type the type of the set method.
+	 * @param value the value of a primitive type (float and double as their bits), or the sqlType.
+	 * @param object the value of an object type.
+	 * @return the recorded parameter as text, null for a NULL value.
+	 */
+	static String toString(byte type, long value, Object object) {
+		switch (type) {
+		case NULL:
+			return null;
+		case BOOLEAN:
+			return String.valueOf(value != 0);
+		case BYTE:
+		case SHORT:
+		case INT:
+		case LONG:
+			return String.valueOf(value);
+		case FLOAT:
+			return String.valueOf(Float.intBitsToFloat((int) value));
+		case DOUBLE:
+			return String.valueOf(Double.longBitsToDouble(value));
+		case BIG_DECIMAL:
+			return object == null ? null : ((BigDecimal) object).toPlainString();
+		default:
+			return object == null ? null : object.toString();
+		}
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setNull(int, int)
+	 */
+	public void setNull(int arg0, int arg1) throws SQLException {
+		record(arg0, NULL, arg1, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setBoolean(int, boolean)
+	 */
+	public void setBoolean(int arg0, boolean arg1) throws SQLException {
+		record(arg0, BOOLEAN, arg1 ? 1 : 0, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setByte(int, byte)
+	 */
+	public void setByte(int arg0, byte arg1) throws SQLException {
+		record(arg0, BYTE, arg1, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setShort(int, short)
+	 */
+	public void setShort(int arg0, short arg1) throws SQLException {
+		record(arg0, SHORT, arg1, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setInt(int, int)
+	 */
+	public void setInt(int arg0, int arg1) throws SQLException {
+		record(arg0, INT, arg1, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setLong(int, long)
+	 */
+	public void setLong(int arg0, long arg1) throws SQLException {
+		record(arg0, LONG, arg1, null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setFloat(int, float)
+	 */
+	public void setFloat(int arg0, float arg1) throws SQLException {
+		record(arg0, FLOAT, Float.floatToRawIntBits(arg1), null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setDouble(int, double)
+	 */
+	public void setDouble(int arg0, double arg1) throws SQLException {
+		record(arg0, DOUBLE, Double.doubleToRawLongBits(arg1), null);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setBigDecimal(int, java.math.BigDecimal)
+	 */
+	public void setBigDecimal(int arg0, BigDecimal arg1) throws SQLException {
+		record(arg0, BIG_DECIMAL, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setString(int, java.lang.String)
+	 */
+	public void setString(int arg0, String arg1) throws SQLException {
+		record(arg0, STRING, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setNString(int, java.lang.String)
+	 */
+	public void setNString(int arg0, String arg1) throws SQLException {
+		record(arg0, NSTRING, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setBytes(int, byte[])
+	 */
+	public void setBytes(int arg0, byte[] arg1) throws SQLException {
+		record(arg0, BYTES, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setDate(int, java.sql.Date)
+	 */
+	public void setDate(int arg0, Date arg1) throws SQLException {
+		record(arg0, DATE, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setTime(int, java.sql.Time)
+	 */
+	public void setTime(int arg0, Time arg1) throws SQLException {
+		record(arg0, TIME, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setTimestamp(int, java.sql.Timestamp)
+	 */
+	public void setTimestamp(int arg0, Timestamp arg1) throws SQLException {
+		record(arg0, TIMESTAMP, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setObject(int, java.lang.Object)
+	 */
+	public void setObject(int arg0, Object arg1) throws SQLException {
+		record(arg0, OBJECT, 0, arg1);
+	}
+
+	/**
+	 * @see java.sql.PreparedStatement#setObject(int, java.lang.Object, int)
+	 */
+	public void setObject(int arg0, Object arg1, int arg2) throws SQLException {
+		record(arg0, OBJECT_WITH_TYPE, arg2, arg1);
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void addBatch() throws SQLException {
+		throw notSupported("addBatch");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void addBatch(String arg0) throws SQLException {
+		throw notSupported("addBatch");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void cancel() throws SQLException {
+		throw notSupported("cancel");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void clearBatch() throws SQLException {
+		throw notSupported("clearBatch");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void clearParameters() throws SQLException {
+		throw notSupported("clearParameters");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void clearWarnings() throws SQLException {
+		throw notSupported("clearWarnings");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void close() throws SQLException {
+		throw notSupported("close");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void closeOnCompletion() throws SQLException {
+		throw notSupported("closeOnCompletion");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean execute() throws SQLException {
+		throw notSupported("execute");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean execute(String arg0) throws SQLException {
+		throw notSupported("execute");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean execute(String arg0, int[] arg1) throws SQLException {
+		throw notSupported("execute");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean execute(String arg0, String[] arg1) throws SQLException {
+		throw notSupported("execute");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean execute(String arg0, int arg1) throws SQLException {
+		throw notSupported("execute");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int[] executeBatch() throws SQLException {
+		throw notSupported("executeBatch");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ResultSet executeQuery() throws SQLException {
+		throw notSupported("executeQuery");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ResultSet executeQuery(String arg0) throws SQLException {
+		throw notSupported("executeQuery");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int executeUpdate() throws SQLException {
+		throw notSupported("executeUpdate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int executeUpdate(String arg0) throws SQLException {
+		throw notSupported("executeUpdate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int executeUpdate(String arg0, int[] arg1) throws SQLException {
+		throw notSupported("executeUpdate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int executeUpdate(String arg0, String[] arg1) throws SQLException {
+		throw notSupported("executeUpdate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int executeUpdate(String arg0, int arg1) throws SQLException {
+		throw notSupported("executeUpdate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public Connection getConnection() throws SQLException {
+		throw notSupported("getConnection");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getFetchDirection() throws SQLException {
+		throw notSupported("getFetchDirection");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getFetchSize() throws SQLException {
+		throw notSupported("getFetchSize");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ResultSet getGeneratedKeys() throws SQLException {
+		throw notSupported("getGeneratedKeys");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getMaxFieldSize() throws SQLException {
+		throw notSupported("getMaxFieldSize");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getMaxRows() throws SQLException {
+		throw notSupported("getMaxRows");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ResultSetMetaData getMetaData() throws SQLException {
+		throw notSupported("getMetaData");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean getMoreResults() throws SQLException {
+		throw notSupported("getMoreResults");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean getMoreResults(int arg0) throws SQLException {
+		throw notSupported("getMoreResults");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		throw notSupported("getParameterMetaData");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getQueryTimeout() throws SQLException {
+		throw notSupported("getQueryTimeout");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public ResultSet getResultSet() throws SQLException {
+		throw notSupported("getResultSet");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getResultSetConcurrency() throws SQLException {
+		throw notSupported("getResultSetConcurrency");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getResultSetHoldability() throws SQLException {
+		throw notSupported("getResultSetHoldability");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getResultSetType() throws SQLException {
+		throw notSupported("getResultSetType");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public int getUpdateCount() throws SQLException {
+		throw notSupported("getUpdateCount");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public SQLWarning getWarnings() throws SQLException {
+		throw notSupported("getWarnings");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean isCloseOnCompletion() throws SQLException {
+		throw notSupported("isCloseOnCompletion");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean isClosed() throws SQLException {
+		throw notSupported("isClosed");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean isPoolable() throws SQLException {
+		throw notSupported("isPoolable");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public boolean isWrapperFor(Class<?> arg0) throws SQLException {
+		throw notSupported("isWrapperFor");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setArray(int arg0, Array arg1) throws SQLException {
+		throw notSupported("setArray");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setAsciiStream(int arg0, InputStream arg1) throws SQLException {
+		throw notSupported("setAsciiStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setAsciiStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+		throw notSupported("setAsciiStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setAsciiStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+		throw notSupported("setAsciiStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBinaryStream(int arg0, InputStream arg1) throws SQLException {
+		throw notSupported("setBinaryStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBinaryStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+		throw notSupported("setBinaryStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBinaryStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+		throw notSupported("setBinaryStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBlob(int arg0, InputStream arg1) throws SQLException {
+		throw notSupported("setBlob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBlob(int arg0, Blob arg1) throws SQLException {
+		throw notSupported("setBlob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setBlob(int arg0, InputStream arg1, long arg2) throws SQLException {
+		throw notSupported("setBlob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setCharacterStream(int arg0, Reader arg1) throws SQLException {
+		throw notSupported("setCharacterStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setCharacterStream(int arg0, Reader arg1, int arg2) throws SQLException {
+		throw notSupported("setCharacterStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+		throw notSupported("setCharacterStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setClob(int arg0, Reader arg1) throws SQLException {
+		throw notSupported("setClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setClob(int arg0, Clob arg1) throws SQLException {
+		throw notSupported("setClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setClob(int arg0, Reader arg1, long arg2) throws SQLException {
+		throw notSupported("setClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setCursorName(String arg0) throws SQLException {
+		throw notSupported("setCursorName");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setDate(int arg0, Date arg1, Calendar arg2) throws SQLException {
+		throw notSupported("setDate");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setEscapeProcessing(boolean arg0) throws SQLException {
+		throw notSupported("setEscapeProcessing");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setFetchDirection(int arg0) throws SQLException {
+		throw notSupported("setFetchDirection");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setFetchSize(int arg0) throws SQLException {
+		throw notSupported("setFetchSize");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setMaxFieldSize(int arg0) throws SQLException {
+		throw notSupported("setMaxFieldSize");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setMaxRows(int arg0) throws SQLException {
+		throw notSupported("setMaxRows");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNCharacterStream(int arg0, Reader arg1) throws SQLException {
+		throw notSupported("setNCharacterStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+		throw notSupported("setNCharacterStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNClob(int arg0, Reader arg1) throws SQLException {
+		throw notSupported("setNClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNClob(int arg0, NClob arg1) throws SQLException {
+		throw notSupported("setNClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNClob(int arg0, Reader arg1, long arg2) throws SQLException {
+		throw notSupported("setNClob");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setNull(int arg0, int arg1, String arg2) throws SQLException {
+		throw notSupported("setNull");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setObject(int arg0, Object arg1, int arg2, int arg3) throws SQLException {
+		throw notSupported("setObject");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setPoolable(boolean arg0) throws SQLException {
+		throw notSupported("setPoolable");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setQueryTimeout(int arg0) throws SQLException {
+		throw notSupported("setQueryTimeout");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setRef(int arg0, Ref arg1) throws SQLException {
+		throw notSupported("setRef");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setRowId(int arg0, RowId arg1) throws SQLException {
+		throw notSupported("setRowId");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setSQLXML(int arg0, SQLXML arg1) throws SQLException {
+		throw notSupported("setSQLXML");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setTime(int arg0, Time arg1, Calendar arg2) throws SQLException {
+		throw notSupported("setTime");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setTimestamp(int arg0, Timestamp arg1, Calendar arg2) throws SQLException {
+		throw notSupported("setTimestamp");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setURL(int arg0, URL arg1) throws SQLException {
+		throw notSupported("setURL");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public void setUnicodeStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+		throw notSupported("setUnicodeStream");
+	}
+
+	/**
+	 * Method not supported.
+	 * @throws SQLException Always throws this one.
+	 */
+	public <T> T unwrap(Class<T> arg0) throws SQLException {
+		throw notSupported("unwrap");
+	}
+
+	private SQLException notSupported(String method) {
+		return new SQLException("Method " + method + " is not supported when recording parameters");
+	}
+}
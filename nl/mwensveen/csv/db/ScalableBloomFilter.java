@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Bloom filter that grows with the number of keys, up to a maximum size. It starts with one filter for the expected 
+ * number of keys; when that is full a new filter of twice the size and half the false positive rate is added, so the 
+ * overall false positive rate stays below twice the initial rate. When a new filter does not fit in the maximum size, 
+ * the last filter gets the memory that is left and takes all further keys, its false positive rate then rises with 
+ * the number of keys. A key that was added is always reported as possibly contained, a key that was not added is 
+ * reported as contained with the false positive rate.
+ * 
+ * @author Micha Wensveen
+ */
+class ScalableBloomFilter {
+	private final List<long[]> filters = new ArrayList<long[]>();
+	private final List<Integer> hashCounts = new ArrayList<Integer>();
+	private final long maxBytes;
+	private long capacity;
+	private double falsePositiveRate;
+	private long keysInFilter;
+
+	/**
+	 * @param expectedKeys number of keys for the first filter.
+	 * @param falsePositiveRate the false positive rate of the first filter, e.g. 0.001.
+	 * @param maxBytes the maximum number of bytes used by the filters.
+	 */
+	ScalableBloomFilter(long expectedKeys, double falsePositiveRate, long maxBytes) {
+		this.maxBytes = Math.max(8, maxBytes);
+		this.capacity = Math.max(1024, expectedKeys);
+		this.falsePositiveRate = falsePositiveRate;
+		addFilter();
+	}
+
+	private void addFilter() {
+		// optimal number of bits m = -n ln(p) / ln(2)^2, number of hashes k = m/n ln(2).
+		double bitsPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		long words = Math.min(Integer.MAX_VALUE - 8, ((long) Math.ceil(capacity * bitsPerKey) + 63) / 64);
+		long available = (maxBytes - getMemorySize()) / 8;
+		if (available - words < 2 * words) {
+			// the next filter, at least twice as large, would not fit: this is the last filter, it is never full.
+			words = Math.min(Integer.MAX_VALUE - 8, available);
+			capacity = Long.MAX_VALUE;
+		}
+		filters.add(new long[(int) words]);
+		hashCounts.add(Integer.valueOf(Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)))));
+		keysInFilter = 0;
+	}
+
+	/**
+	 * @param hash1 first 64 bit hash of the key.
+	 * @param hash2 second, independent, 64 bit hash of the key.
+	 * @return false when the key was certainly not added, true when it possibly was.
+	 */
+	boolean mightContain(long hash1, long hash2) {
+		for (int f = 0; f < filters.size(); f++) {
+			if (isSet(filters.get(f), hashCounts.get(f).intValue(), hash1, hash2)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Add a key.
+	 * 
+	 * @param hash1 first 64 bit hash of the key.
+	 * @param hash2 second, independent, 64 bit hash of the key.
+	 */
+	void add(long hash1, long hash2) {
+		if (keysInFilter >= capacity && getMemorySize() < maxBytes) {
+			capacity *= 2;
+			falsePositiveRate /= 2;
+			addFilter();
+		}
+		int last = filters.size() - 1;
+		long[] bits = filters.get(last);
+		long size = bits.length * 64L;
+		int hashes = hashCounts.get(last).intValue();
+		for (int i = 0; i < hashes; i++) {
+			long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % size;
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+		}
+		keysInFilter++;
+	}
+
+	private boolean isSet(long[] bits, int hashes, long hash1, long hash2) {
+		long size = bits.length * 64L;
+		for (int i = 0; i < hashes; i++) {
+			long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % size;
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of bytes used by the filters.
+	 */
+	long getMemorySize() {
+		long size = 0;
+		for (long[] bits : filters) {
+			size += bits.length * 8L;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import nl.mwensveen.csv.CSVResultSet;
+import nl.mwensveen.csv.db.partition.api.Partitioner;
+
+/**
+ * Routes the rows of a sharded load (see DbConfig.addShard()) to the shards. Every shard has a thread with its own
+ * DbCreationUtil, so all shards load at the same time, each with the settings (database, table, batching) of its 
+ * own DbConfig. The rows are handed over in chunks of the values as in the file; the DbTypes of the shard convert them.
+ * When a shard fails, the other shards stop and roll back their uncommitted rows.
+ * 
+ * @author Micha Wensveen
+ */
+class ShardRouter {
+	/** Marks the end of the rows for a shard. */
+	private static final List<List<String>> END = new ArrayList<List<String>>();
+	/** Number of chunks that may wait for a shard. */
+	private static final int QUEUE_SIZE = 4;
+
+	private final Logger log = Logger.getLogger(ShardRouter.class);
+	private final List<DbConfig> shards;
+	private final Partitioner partitioner;
+	private final int partitionColumn;
+	private final int chunkSize;
+	private final ResultSetMetaData metaData;
+	private final List<BlockingQueue<List<List<String>>>> queues = new ArrayList<BlockingQueue<List<List<String>>>>();
+	private final List<List<List<String>>> pending = new ArrayList<List<List<String>>>();
+	private final List<Thread> workers = new ArrayList<Thread>();
+	private final AtomicLong[] routedRows;
+	private volatile CSVResultSet template;
+	private volatile SQLException failure;
+	private boolean finished;
+
+	/**
+	 * Start a thread for every shard.
+	 * 
+	 * @param shards the DbConfig of every shard.
+	 * @param partitioner determines the shard of a row.
+	 * @param partitionColumn the column (starting with 1) with the value for the partitioner.
+	 * @param chunkSize number of rows handed to a shard at once.
+	 * @param metaData the metaData of the rows, used to create the table of every shard.
+	 */
+	ShardRouter(List<DbConfig> shards, Partitioner partitioner, int partitionColumn, int chunkSize, ResultSetMetaData metaData)
+			throws SQLException {
+		this.shards = shards;
+		this.partitioner = partitioner;
+		this.partitionColumn = partitionColumn;
+		this.chunkSize = chunkSize;
+		this.metaData = metaData;
+		routedRows = new AtomicLong[shards.size()];
+		for (int i = 0; i < shards.size(); i++) {
+			final int shard = i;
+			routedRows[i] = new AtomicLong();
+			queues.add(new ArrayBlockingQueue<List<List<String>>>(QUEUE_SIZE));
+			pending.add(new ArrayList<List<String>>(chunkSize));
+			Thread worker = new Thread(new Runnable() {
+				public void run() {
+					work(shard);
+				}
+			}, "DbCreationUtil-shard-" + (i + 1));
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Route the rows of the ResultSet to their shards. A shard gets its rows when it has a full chunk.
+	 * 
+	 * @param rows CSVResultSet, positioned before the first row.
+	 * @throws SQLException when a row cannot be partitioned or a shard has failed.
+	 */
+	void route(ResultSet rows) throws SQLException {
+		if (!(rows instanceof CSVResultSet)) {
+			throw new SQLException("A sharded load requires the CSVResultSet of the CSVParser");
+		}
+		if (template == null) {
+			// the first rows of the load.
+			partitioner.init(((CSVResultSet) rows).getCellConverter());
+		}
+		template = (CSVResultSet) rows;
+		while (rows.next()) {
+			// the parsed row itself, so the shard still knows its line in the file.
+			List<String> values = template.getCurrentRow();
+			int shard = partitioner.partition(rows.getString(partitionColumn), shards.size());
+			if (shard < 0 || shard >= shards.size()) {
+				throw new SQLException("Partitioner returned shard " + shard + " for " + shards.size() + " shards");
+			}
+			List<List<String>> chunk = pending.get(shard);
+			chunk.add(values);
+			if (chunk.size() >= chunkSize) {
+				submit(shard);
+			}
+		}
+	}
+
+	/**
+	 * Hand the pending rows of the shard to its thread. Blocks while the shard is busy.
+	 */
+	private void submit(int shard) throws SQLException {
+		List<List<String>> chunk = pending.get(shard);
+		pending.set(shard, new ArrayList<List<String>>(chunkSize));
+		try {
+			while (!queues.get(shard).offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while handing rows to shard " + (shard + 1), e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Hand the last rows to the shards and wait until all shards have loaded and committed them.
+	 * 
+	 * @throws SQLException the first failure of a shard.
+	 */
+	void finish() throws SQLException {
+		if (finished) {
+			checkFailure();
+			return;
+		}
+		finished = true;
+		try {
+			for (int shard = 0; shard < shards.size() && failure == null; shard++) {
+				if (!pending.get(shard).isEmpty()) {
+					submit(shard);
+				}
+			}
+		} catch (SQLException e) {
+			// registered as failure, the shards stop below.
+		}
+		try {
+			for (BlockingQueue<List<List<String>>> queue : queues) {
+				while (failure == null && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+					// wait for a free place in the queue.
+				}
+				if (failure != null) {
+					// the shards stop on their own, make sure none is waiting for rows.
+					queue.clear();
+					queue.offer(END);
+				}
+			}
+			for (Thread worker : workers) {
+				worker.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the shards", e);
+		}
+		if (log.isInfoEnabled()) {
+			for (int shard = 0; shard < shards.size(); shard++) {
+				log.info("Shard " + (shard + 1) + " (" + shards.get(shard).getJdbcUrl() + "): " + routedRows[shard].get() + " rows");
+			}
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Stop the shards because the load failed elsewhere. The shards roll back their uncommitted rows.
+	 * 
+	 * @param cause the reason the load failed.
+	 */
+	void abort(SQLException cause) {
+		registerFailure(cause);
+		try {
+			finish();
+		} catch (SQLException e) {
+			// this is the failure that was just registered, or an earlier one of a shard.
+		}
+	}
+
+	/**
+	 * @param shard index of the shard.
+	 * @return the number of rows loaded by the shard.
+	 */
+	long getRowCount(int shard) {
+		return routedRows[shard].get();
+	}
+
+	private void checkFailure() throws SQLException {
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private synchronized void registerFailure(SQLException cause) {
+		if (failure == null) {
+			failure = cause;
+		}
+	}
+
+	/**
+	 * Load the rows of a shard from its queue until the end is reached or another shard failed.
+	 */
+	private void work(int shard) {
+		DbCreationUtil util = new DbCreationUtil(shards.get(shard));
+		BlockingQueue<List<List<String>>> queue = queues.get(shard);
+		try {
+			util.init(metaData);
+			while (failure == null) {
+				List<List<String>> rows = queue.take();
+				if (rows == END) {
+					break;
+				}
+				util.processResultSet(template.createChunk(rows));
+				routedRows[shard].addAndGet(rows.size());
+			}
+			if (failure != null) {
+				// another shard failed.
+				util.rollback(failure);
+			}
+		} catch (SQLException e) {
+			log.error("Shard " + (shard + 1) + " failed", e);
+			registerFailure(e);
+			// also when init() failed, so finish() does not swap the staging table of the shard.
+			util.rollback(e);
+		} catch (InterruptedException e) {
+			SQLException cause = new SQLException("Shard " + (shard + 1) + " interrupted", e);
+			registerFailure(cause);
+			util.rollback(cause);
+		} catch (RuntimeException e) {
+			log.error("Shard " + (shard + 1) + " failed", e);
+			SQLException cause = new SQLException("Error loading shard " + (shard + 1), e);
+			registerFailure(cause);
+			util.rollback(cause);
+		} finally {
+			try {
+				util.finish();
+			} catch (SQLException e) {
+				log.error("Error finishing shard " + (shard + 1), e);
+				registerFailure(e);
+			}
+		}
+	}
+}
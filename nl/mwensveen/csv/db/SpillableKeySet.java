@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+/**
+ * An exact set of keys that is kept in memory up to a memory budget. When the budget is exceeded the keys in 
+ * memory are moved to disk, and the memory is used for new keys. On disk the keys are appended to a key file, 
+ * and found with a hash table (open addressing) in a slot file: every slot holds the hash of a key and the 
+ * position of the key in the key file. Both files are mapped in memory, in segments of at most 1 GB, so looking 
+ * up a key on disk reads a few slots and, only when the hash matches, the key itself, without a call to the 
+ * file system. The mapped files are kept in memory by the operating system, outside the memory budget.
+ * 
+ * @author Micha Wensveen
+ */
+class SpillableKeySet {
+	/** Estimated memory used by a key in a HashSet, besides the characters. */
+	private static final int KEY_OVERHEAD = 64;
+	/** Size of a slot: the hash of the key (0 for an empty slot) and the position of the key in the key file. */
+	private static final int SLOT_SIZE = 16;
+	private static final long INITIAL_SLOTS = 1 << 16;
+	/** Number of slots in a mapped segment of the slot file. */
+	private static final int SLOT_SEGMENT_SHIFT = 26;
+	/** Size of a mapped segment of the key file, a key never crosses the end of a segment. */
+	private static final int KEY_SEGMENT_SHIFT = 30;
+	private static final long KEY_SEGMENT_SIZE = 1L << KEY_SEGMENT_SHIFT;
+
+	private final Logger log = Logger.getLogger(SpillableKeySet.class);
+	private final long memoryBudget;
+	private Set<String> memoryKeys = new HashSet<String>();
+	private long memoryUsed;
+	private File keyFile;
+	private File slotFile;
+	private final List<MappedByteBuffer> keySegments = new ArrayList<MappedByteBuffer>();
+	private MappedByteBuffer[] slotSegments;
+	private long keyFileLength;
+	private long slotCount;
+	private long keysOnDisk;
+
+	/**
+	 * @param memoryBudget the number of bytes that may be used for the keys in memory.
+	 */
+	SpillableKeySet(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * @param key String
+	 * @param hash a 64 bit hash of the key.
+	 * @return true when the key was added.
+	 */
+	boolean contains(String key, long hash) {
+		if (memoryKeys.contains(key)) {
+			return true;
+		}
+		if (keysOnDisk == 0) {
+			return false;
+		}
+		long stored = slotHash(hash);
+		long index = stored & (slotCount - 1);
+		while (true) {
+			MappedByteBuffer segment = slotSegments[(int) (index >>> SLOT_SEGMENT_SHIFT)];
+			int offset = slotOffset(index);
+			long slotHash = segment.getLong(offset);
+			if (slotHash == 0) {
+				return false;
+			}
+			if (slotHash == stored && isKey(segment.getLong(offset + 8), key)) {
+				return true;
+			}
+			index = (index + 1) & (slotCount - 1);
+		}
+	}
+
+	/**
+	 * Add a key that is not yet in the set.
+	 * 
+	 * @param key String
+	 * @throws SQLException when the files cannot be written.
+	 */
+	void add(String key) throws SQLException {
+		memoryKeys.add(key);
+		memoryUsed += 2L * key.length() + KEY_OVERHEAD;
+		if (memoryUsed > memoryBudget) {
+			try {
+				spill();
+			} catch (IOException e) {
+				throw new SQLException("Cannot write the keys of the deduplication", e);
+			}
+		}
+	}
+
+	/**
+	 * Move the keys in memory to the key file and the hash table.
+	 */
+	private void spill() throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Writing " + memoryKeys.size() + " deduplication keys to disk");
+		}
+		if (keyFile == null) {
+			keyFile = File.createTempFile("csvdb", ".keys");
+			slotCount = INITIAL_SLOTS;
+			slotFile = File.createTempFile("csvdb", ".slots");
+			slotSegments = mapSlots(slotFile, slotCount);
+		}
+		// keep the hash table at most half full.
+		while ((keysOnDisk + memoryKeys.size()) * 2 > slotCount) {
+			grow();
+		}
+		long start = keyFileLength;
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(keyFile, true), 64 * 1024));
+		try {
+			for (String key : memoryKeys) {
+				long size = 4 + 2L * key.length();
+				long left = KEY_SEGMENT_SIZE - (keyFileLength & (KEY_SEGMENT_SIZE - 1));
+				if (size > left) {
+					// start the key in the next segment.
+					for (long i = 0; i < left; i++) {
+						out.write(0);
+					}
+					keyFileLength += left;
+				}
+				insertSlot(slotSegments, slotCount, slotHash(Deduplicator.hash1(key)), keyFileLength);
+				out.writeInt(key.length());
+				out.writeChars(key);
+				keyFileLength += size;
+			}
+		} finally {
+			out.close();
+		}
+		mapKeys(start);
+		keysOnDisk += memoryKeys.size();
+		memoryKeys = new HashSet<String>();
+		memoryUsed = 0;
+	}
+
+	/**
+	 * Map the segments of the key file from the segment with position start to the end of the file. 
+	 */
+	private void mapKeys(long start) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(keyFile, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			for (int segment = (int) (start >>> KEY_SEGMENT_SHIFT); segment * KEY_SEGMENT_SIZE < keyFileLength; segment++) {
+				long position = segment * KEY_SEGMENT_SIZE;
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(KEY_SEGMENT_SIZE, keyFileLength - position));
+				if (segment < keySegments.size()) {
+					keySegments.set(segment, buffer);
+				} else {
+					keySegments.add(buffer);
+				}
+			}
+		} finally {
+			// the mapping remains valid after the file is closed.
+			file.close();
+		}
+	}
+
+	/**
+	 * Create the segments of a slot file with count empty slots.
+	 */
+	private MappedByteBuffer[] mapSlots(File file, long count) throws IOException {
+		long slotsPerSegment = Math.min(count, 1L << SLOT_SEGMENT_SHIFT);
+		MappedByteBuffer[] segments = new MappedByteBuffer[(int) (count / slotsPerSegment)];
+		RandomAccessFile access = new RandomAccessFile(file, "rw");
+		try {
+			access.setLength(count * SLOT_SIZE);
+			FileChannel channel = access.getChannel();
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * slotsPerSegment * SLOT_SIZE, slotsPerSegment * SLOT_SIZE);
+			}
+		} finally {
+			access.close();
+		}
+		return segments;
+	}
+
+	/**
+	 * Double the number of slots of the hash table. The slots are inserted in a new slot file.
+	 */
+	private void grow() throws IOException {
+		long newCount = slotCount * 2;
+		File newFile = File.createTempFile("csvdb", ".slots");
+		MappedByteBuffer[] newSegments = mapSlots(newFile, newCount);
+		for (long index = 0; index < slotCount; index++) {
+			MappedByteBuffer segment = slotSegments[(int) (index >>> SLOT_SEGMENT_SHIFT)];
+			int offset = slotOffset(index);
+			long hash = segment.getLong(offset);
+			if (hash != 0) {
+				insertSlot(newSegments, newCount, hash, segment.getLong(offset + 8));
+			}
+		}
+		slotSegments = newSegments;
+		delete(slotFile);
+		slotFile = newFile;
+		slotCount = newCount;
+	}
+
+	private void insertSlot(MappedByteBuffer[] segments, long count, long hash, long position) {
+		long index = hash & (count - 1);
+		while (true) {
+			MappedByteBuffer segment = segments[(int) (index >>> SLOT_SEGMENT_SHIFT)];
+			int offset = slotOffset(index);
+			if (segment.getLong(offset) == 0) {
+				segment.putLong(offset, hash);
+				segment.putLong(offset + 8, position);
+				return;
+			}
+			index = (index + 1) & (count - 1);
+		}
+	}
+
+	/**
+	 * @return true when the key at the position in the key file is the key.
+	 */
+	private boolean isKey(long position, String key) {
+		MappedByteBuffer segment = keySegments.get((int) (position >>> KEY_SEGMENT_SHIFT));
+		int offset = (int) (position & (KEY_SEGMENT_SIZE - 1));
+		int length = segment.getInt(offset);
+		if (length != key.length()) {
+			return false;
+		}
+		offset += 4;
+		for (int i = 0; i < length; i++) {
+			if (segment.getChar(offset + 2 * i) != key.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the offset of the slot in its segment.
+	 */
+	private static int slotOffset(long index) {
+		return (int) (index & ((1L << SLOT_SEGMENT_SHIFT) - 1)) * SLOT_SIZE;
+	}
+
+	/**
+	 * @return the hash as stored in a slot, never 0 since that marks an empty slot.
+	 */
+	private static long slotHash(long hash) {
+		return hash == 0 ? 1 : hash;
+	}
+
+	/**
+	 * Release and remove the files.
+	 */
+	void close() {
+		memoryKeys = new HashSet<String>();
+		keysOnDisk = 0;
+		keySegments.clear();
+		slotSegments = null;
+		delete(keyFile);
+		delete(slotFile);
+		keyFile = null;
+		slotFile = null;
+	}
+
+	/**
+	 * Delete a file. A file that is still mapped cannot be deleted on every platform, it is then deleted on exit.
+	 */
+	private void delete(File file) {
+		if (file != null && file.exists() && !file.delete()) {
+			log.debug("Cannot delete " + file + " yet, it is deleted on exit");
+			file.deleteOnExit();
+		}
+	}
+}
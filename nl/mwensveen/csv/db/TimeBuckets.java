@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Keeps the PreparedStatements of the tables of a time bucketed load (see DbConfig.setBucketColumn()). Every table 
+ * that received rows recently has its own PreparedStatement and batch. When more than maxOpenBuckets tables are 
+ * open, the batch of the least recently used one is executed and its statement is closed.
+ * 
+ * @author Micha Wensveen
+ */
+class TimeBuckets {
+	private final Logger log = Logger.getLogger(TimeBuckets.class);
+	private final String tableName;
+	private final int bucketColumn;
+	private final SimpleDateFormat bucketFormat;
+	private final int batchSize;
+	private final int maxOpenBuckets;
+	private final Map<String, Bucket> open = new LinkedHashMap<String, Bucket>(16, 0.75f, true);
+	private final Set<String> tables = new HashSet<String>();
+	private String lastValue;
+	private String lastTable;
+
+	/**
+	 * A table with its statement and the number of rows in its batch.
+	 */
+	private static class Bucket {
+		private final PreparedStatement preparedStatement;
+		private int rowsInBatch;
+
+		private Bucket(PreparedStatement preparedStatement) {
+			this.preparedStatement = preparedStatement;
+		}
+	}
+
+	/**
+	 * @param config DbConfig with the tableName, bucketPattern, batchSize and maxOpenBuckets.
+	 * @param bucketColumn the column (starting with 1) with the date that determines the table of a row.
+	 */
+	TimeBuckets(DbConfig config, int bucketColumn) {
+		this.tableName = config.getTableName();
+		this.bucketColumn = bucketColumn;
+		this.bucketFormat = new SimpleDateFormat(config.getBucketPattern());
+		this.batchSize = config.getBatchSize();
+		this.maxOpenBuckets = Math.max(1, config.getMaxOpenBuckets());
+	}
+
+	/**
+	 * Determine the table of the current row: the tableName followed by the date of the bucketColumn in the 
+	 * bucketPattern, e.g. events_2026_10. Consecutive rows with the same value are not parsed again.
+	 * 
+	 * @param resultSet positioned on the row.
+	 * @return the name of the table.
+	 * @throws SQLException when the row has no date.
+	 */
+	String getTableName(ResultSet resultSet) throws SQLException {
+		String value = resultSet.getString(bucketColumn);
+		if (value != null && value.equals(lastValue)) {
+			return lastTable;
+		}
+		Date date = resultSet.getDate(bucketColumn);
+		if (date == null) {
+			throw new SQLException("No date in the bucketColumn for row " + resultSet.getRow());
+		}
+		lastValue = value;
+		lastTable = tableName + "_" + bucketFormat.format(date);
+		return lastTable;
+	}
+
+	/**
+	 * @param table
+	 * @return true when the table was not used before in this load.
+	 */
+	boolean isNew(String table) {
+		return !tables.contains(table);
+	}
+
+	/**
+	 * @param table
+	 * @return the open statement of the table, or null when it has to be (re)opened.
+	 */
+	PreparedStatement getPreparedStatement(String table) {
+		Bucket bucket = open.get(table);
+		return bucket == null ? null : bucket.preparedStatement;
+	}
+
+	/**
+	 * Register the statement of a table. When too many tables are open, the least recently used one is closed.
+	 * 
+	 * @param table
+	 * @param preparedStatement the statement that inserts a row into the table.
+	 * @throws SQLException
+	 */
+	void open(String table, PreparedStatement preparedStatement) throws SQLException {
+		tables.add(table);
+		if (open.size() >= maxOpenBuckets) {
+			Iterator<Map.Entry<String, Bucket>> eldest = open.entrySet().iterator();
+			Map.Entry<String, Bucket> entry = eldest.next();
+			eldest.remove();
+			if (log.isDebugEnabled()) {
+				log.debug("Closing the statement of " + entry.getKey());
+			}
+			try {
+				executeBatch(entry.getValue());
+			} finally {
+				entry.getValue().preparedStatement.close();
+			}
+		}
+		open.put(table, new Bucket(preparedStatement));
+	}
+
+	/**
+	 * Add the row, bound to the statement of the table, to its batch and execute the batch when it is full.
+	 * 
+	 * @param table
+	 * @throws SQLException
+	 */
+	void addRow(String table) throws SQLException {
+		Bucket bucket = open.get(table);
+		if (batchSize > 1) {
+			bucket.preparedStatement.addBatch();
+			bucket.rowsInBatch++;
+			if (bucket.rowsInBatch >= batchSize) {
+				executeBatch(bucket);
+			}
+		} else {
+			bucket.preparedStatement.execute();
+		}
+	}
+
+	/**
+	 * Execute the batches of all open tables.
+	 * 
+	 * @throws SQLException
+	 */
+	void flush() throws SQLException {
+		for (Bucket bucket : open.values()) {
+			executeBatch(bucket);
+		}
+	}
+
+	/**
+	 * Forget the rows in the batches, after a rollback.
+	 */
+	void clear() {
+		for (Bucket bucket : open.values()) {
+			bucket.rowsInBatch = 0;
+			try {
+				bucket.preparedStatement.clearBatch();
+			} catch (SQLException e) {
+				log.error("Error clearing batch", e);
+			}
+		}
+	}
+
+	/**
+	 * Close the statements of all open tables.
+	 * 
+	 * @throws SQLException
+	 */
+	void close() throws SQLException {
+		try {
+			for (Bucket bucket : open.values()) {
+				bucket.preparedStatement.close();
+			}
+		} finally {
+			open.clear();
+		}
+	}
+
+	/**
+	 * @return the number of tables that received rows.
+	 */
+	int getTableCount() {
+		return tables.size();
+	}
+
+	private void executeBatch(Bucket bucket) throws SQLException {
+		if (bucket.rowsInBatch == 0) {
+			return;
+		}
+		int expected = bucket.rowsInBatch;
+		bucket.rowsInBatch = 0;
+		DbCreationUtil.checkUpdateCounts(bucket.preparedStatement.executeBatch(), expected);
+	}
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Applies rows to a table that may already contain them, identified by the key columns. The rows are 
+ * collected in chunks of recorded parameters (see ParameterRecorder) and applied in batches, either with a 
+ * MERGE statement or with an update of the existing rows followed by an insert of the new rows.
+ * When a row hash column is used, the hash of every row is stored in the table and rows whose hash did not 
+ * change are not written. Without MERGE, the stored hashes of the keys of a chunk are looked up with one query 
+ * before the chunk is applied, so only the changed and new rows are sent to the database.
+ * When a key occurs more than once in a chunk, only the last row with that key is applied, as if the rows were 
+ * applied one after the other.
+ * 
+ * @author Micha Wensveen
+ */
+class Upserter {
+	/**
+	 * Maximum number of key values bound in one lookup query. Databases that compile a statement to code (like 
+	 * Derby) reject larger ones, especially with composite keys.
+	 */
+	private static final int MAX_PROBE_PARAMETERS = 500;
+
+	private final Logger log = Logger.getLogger(Upserter.class);
+	private final Connection connection;
+	private final String tableName;
+	private final String[] keyColumns;
+	private final String rowHashColumn;
+	private final int chunkSize;
+	/** Number of keys in the lookup query of the stored hashes. */
+	private final int probeSize;
+	/** Parameter index of the hash in the merge or insert statement, 0 when no hash is used. */
+	private final int hashIndex;
+	/** For every parameter index of a row the index in the update statement, 0 when not updated. */
+	private final int[] updateIndexes;
+	/** For every parameter index of a row the index of the key in the lookup query, 0 for other columns. */
+	private final int[] keyIndexes;
+	private final int updatedColumns;
+	private PreparedStatement mergeStatement;
+	private PreparedStatement updateStatement;
+	private PreparedStatement insertStatement;
+	/** Looks up the stored hashes of probeSize keys, when a row hash column is used. */
+	private PreparedStatement probeStatement;
+	private ParameterRecorder rows = new ParameterRecorder();
+	private long[] hashes;
+	private long insertedRows;
+	private long updatedRows;
+	private long unchangedRows;
+	private long replacedRows;
+
+	/**
+	 * Prepare the statements.
+	 * 
+	 * @param connection Connection
+	 * @param config DbConfig with the tableName, keyColumns, rowHashColumn, batchSize and useMerge.
+	 * @param columnNames the names of the parameters of a row, in the order of the insert statement.
+	 * @param firstColumn parameter index of the first column that can be updated (1, or 2 when the first is the extraColumn).
+	 * @throws SQLException when a key column is unknown or there is nothing to update.
+	 */
+	Upserter(Connection connection, DbConfig config, String[] columnNames, int firstColumn) throws SQLException {
+		this.connection = connection;
+		this.tableName = config.getTableName();
+		this.keyColumns = config.getKeyColumns();
+		this.rowHashColumn = config.getRowHashColumn();
+		this.chunkSize = config.getBatchSize() > 1 ? config.getBatchSize() : ParallelInserter.DEFAULT_CHUNK_SIZE;
+		this.hashes = new long[chunkSize];
+		this.probeSize = Math.max(1, Math.min(chunkSize, MAX_PROBE_PARAMETERS / keyColumns.length));
+		hashIndex = rowHashColumn == null ? 0 : columnNames.length + 1;
+
+		keyIndexes = new int[columnNames.length + 1];
+		for (int k = 0; k < keyColumns.length; k++) {
+			int index = indexOf(columnNames, keyColumns[k], firstColumn);
+			if (index == 0) {
+				throw new SQLException("Key column " + keyColumns[k] + " is not a column of the file");
+			}
+			keyIndexes[index] = k + 1;
+		}
+		updateIndexes = new int[columnNames.length + 1];
+		int updated = 0;
+		for (int i = firstColumn; i <= columnNames.length; i++) {
+			if (keyIndexes[i] == 0) {
+				updateIndexes[i] = ++updated;
+			}
+		}
+		updatedColumns = updated;
+		if (updatedColumns == 0 && rowHashColumn == null) {
+			throw new SQLException("All columns are key columns, there is nothing to update");
+		}
+
+		if (config.isUseMerge()) {
+			mergeStatement = prepare(makeMergeStatement(columnNames, firstColumn));
+		} else {
+			updateStatement = prepare(makeUpdateStatement(columnNames, firstColumn));
+			insertStatement = prepare(makeInsertStatement(columnNames));
+			if (rowHashColumn != null) {
+				probeStatement = prepare(makeProbeStatement());
+			}
+		}
+	}
+
+	private int indexOf(String[] columnNames, String name, int firstColumn) {
+		for (int i = firstColumn; i <= columnNames.length; i++) {
+			if (columnNames[i - 1].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		return 0;
+	}
+
+	private PreparedStatement prepare(String sql) throws SQLException {
+		if (log.isDebugEnabled()) {
+			log.debug("Upsert statement: " + sql);
+		}
+		return connection.prepareStatement(sql);
+	}
+
+	/**
+	 * @return MERGE INTO table USING (VALUES (?, ...)) AS s (columns) ON keys WHEN MATCHED [AND hash changed] 
+	 * THEN UPDATE SET ... WHEN NOT MATCHED THEN INSERT ...
+	 */
+	private String makeMergeStatement(String[] columnNames, int firstColumn) {
+		StringBuilder sql = new StringBuilder("MERGE INTO ");
+		sql.append(tableName);
+		sql.append(" USING (VALUES (");
+		int parameters = columnNames.length + (rowHashColumn == null ? 0 : 1);
+		for (int i = 0; i < parameters; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		sql.append(")) AS s (");
+		appendColumns(sql, columnNames, "");
+		sql.append(") ON ");
+		for (int k = 0; k < keyColumns.length; k++) {
+			if (k > 0) {
+				sql.append(" AND ");
+			}
+			sql.append(tableName).append('.').append(keyColumns[k]).append(" = s.").append(keyColumns[k]);
+		}
+		sql.append(" WHEN MATCHED");
+		if (rowHashColumn != null) {
+			sql.append(" AND (").append(tableName).append('.').append(rowHashColumn).append(" IS NULL OR ");
+			sql.append(tableName).append('.').append(rowHashColumn).append(" <> s.").append(rowHashColumn).append(")");
+		}
+		sql.append(" THEN UPDATE SET ");
+		boolean first = true;
+		for (int i = firstColumn; i <= columnNames.length; i++) {
+			if (updateIndexes[i] > 0) {
+				sql.append(first ? "" : ", ").append(columnNames[i - 1]).append(" = s.").append(columnNames[i - 1]);
+				first = false;
+			}
+		}
+		if (rowHashColumn != null) {
+			sql.append(first ? "" : ", ").append(rowHashColumn).append(" = s.").append(rowHashColumn);
+		}
+		sql.append(" WHEN NOT MATCHED THEN INSERT (");
+		appendColumns(sql, columnNames, "");
+		sql.append(") VALUES (");
+		appendColumns(sql, columnNames, "s.");
+		sql.append(")");
+		return sql.toString();
+	}
+
+	/**
+	 * @return UPDATE table SET columns = ? [, hash = ?] WHERE keys = ? [AND hash changed]
+	 */
+	private String makeUpdateStatement(String[] columnNames, int firstColumn) {
+		StringBuilder sql = new StringBuilder("UPDATE ");
+		sql.append(tableName);
+		sql.append(" SET ");
+		boolean first = true;
+		for (int i = firstColumn; i <= columnNames.length; i++) {
+			if (updateIndexes[i] > 0) {
+				sql.append(first ? "" : ", ").append(columnNames[i - 1]).append(" = ?");
+				first = false;
+			}
+		}
+		if (rowHashColumn != null) {
+			sql.append(first ? "" : ", ").append(rowHashColumn).append(" = ?");
+		}
+		sql.append(" WHERE ");
+		appendKeyCondition(sql);
+		if (rowHashColumn != null) {
+			sql.append(" AND (").append(rowHashColumn).append(" IS NULL OR ").append(rowHashColumn).append(" <> ?)");
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * @return INSERT INTO table (columns [, hash]) VALUES (?, ...)
+	 */
+	private String makeInsertStatement(String[] columnNames) {
+		StringBuilder sql = new StringBuilder("INSERT INTO ");
+		sql.append(tableName);
+		sql.append(" (");
+		appendColumns(sql, columnNames, "");
+		sql.append(") VALUES (");
+		int parameters = columnNames.length + (rowHashColumn == null ? 0 : 1);
+		for (int i = 0; i < parameters; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		sql.append(")");
+		return sql.toString();
+	}
+
+	/**
+	 * @return SELECT hash FROM table WHERE key IN (?, ...), or WHERE (keys = ?) OR (keys = ?) ... for more key 
+	 * columns, with probeSize keys.
+	 */
+	private String makeProbeStatement() {
+		StringBuilder sql = new StringBuilder("SELECT ");
+		sql.append(rowHashColumn);
+		sql.append(" FROM ");
+		sql.append(tableName);
+		sql.append(" WHERE ");
+		if (keyColumns.length == 1) {
+			sql.append(keyColumns[0]).append(" IN (");
+			for (int i = 0; i < probeSize; i++) {
+				sql.append(i == 0 ? "?" : ", ?");
+			}
+			sql.append(")");
+		} else {
+			for (int i = 0; i < probeSize; i++) {
+				sql.append(i == 0 ? "(" : " OR (");
+				appendKeyCondition(sql);
+				sql.append(")");
+			}
+		}
+		return sql.toString();
+	}
+
+	private void appendColumns(StringBuilder sql, String[] columnNames, String prefix) {
+		for (int i = 0; i < columnNames.length; i++) {
+			sql.append(i == 0 ? "" : ", ").append(prefix).append(columnNames[i]);
+		}
+		if (rowHashColumn != null) {
+			sql.append(", ").append(prefix).append(rowHashColumn);
+		}
+	}
+
+	private void appendKeyCondition(StringBuilder sql) {
+		for (int k = 0; k < keyColumns.length; k++) {
+			if (k > 0) {
+				sql.append(" AND ");
+			}
+			sql.append(keyColumns[k]).append(" = ?");
+		}
+	}
+
+	/**
+	 * @return the PreparedStatement on which the parameters of the current row must be set.
+	 */
+	PreparedStatement getPreparedStatement() {
+		return rows.getPreparedStatement();
+	}
+
+	/**
+	 * End the current row and apply the chunk when it is complete.
+	 * 
+	 * @param hash the hash of the values of the row, only used when there is a row hash column.
+	 * @throws SQLException
+	 */
+	void endRow(long hash) throws SQLException {
+		hashes[rows.getRowCount()] = hash;
+		rows.endRow();
+		if (rows.getRowCount() >= chunkSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Apply the rows of the current chunk.
+	 * 
+	 * @throws SQLException
+	 */
+	void flush() throws SQLException {
+		int count = rows.getRowCount();
+		if (count == 0) {
+			return;
+		}
+		try {
+			List<Integer> lastRows = findLastRows(count);
+			if (mergeStatement != null) {
+				merge(lastRows);
+			} else {
+				updateOrInsert(lastRows);
+			}
+		} finally {
+			rows.clear();
+		}
+	}
+
+	/**
+	 * @return the rows of the chunk, without the rows whose key occurs again later in the chunk.
+	 */
+	private List<Integer> findLastRows(int count) {
+		Map<String, Integer> lastRowOfKey = new HashMap<String, Integer>(count * 2);
+		for (int r = 0; r < count; r++) {
+			lastRowOfKey.put(rows.getKey(r, keyIndexes), Integer.valueOf(r));
+		}
+		List<Integer> lastRows = new ArrayList<Integer>(lastRowOfKey.size());
+		for (int r = 0; r < count; r++) {
+			if (lastRowOfKey.size() == count || lastRowOfKey.get(rows.getKey(r, keyIndexes)).intValue() == r) {
+				lastRows.add(Integer.valueOf(r));
+			}
+		}
+		replacedRows += count - lastRows.size();
+		return lastRows;
+	}
+
+	private void merge(List<Integer> lastRows) throws SQLException {
+		int count = lastRows.size();
+		for (Integer row : lastRows) {
+			int r = row.intValue();
+			rows.replayRow(mergeStatement, r);
+			if (hashIndex > 0) {
+				mergeStatement.setLong(hashIndex, hashes[r]);
+			}
+			mergeStatement.addBatch();
+		}
+		int[] updateCounts = mergeStatement.executeBatch();
+		for (int r = 0; r < updateCounts.length; r++) {
+			if (updateCounts[r] == Statement.EXECUTE_FAILED) {
+				throw new SQLException("Row " + (r + 1) + " of batch of " + count + " rows could not be merged");
+			}
+			if (updateCounts[r] == 0) {
+				unchangedRows++;
+			} else {
+				// a merge does not tell whether the row was inserted or updated.
+				updatedRows++;
+			}
+		}
+	}
+
+	private void updateOrInsert(List<Integer> lastRows) throws SQLException {
+		if (hashIndex > 0) {
+			lastRows = findChangedRows(lastRows);
+		}
+		int count = lastRows.size();
+		if (count == 0) {
+			return;
+		}
+		for (Integer row : lastRows) {
+			int r = row.intValue();
+			rows.replayRow(updateStatement, r, updateIndexes, 0);
+			rows.replayRow(updateStatement, r, keyIndexes, updatedColumns + (hashIndex > 0 ? 1 : 0));
+			if (hashIndex > 0) {
+				updateStatement.setLong(updatedColumns + 1, hashes[r]);
+				updateStatement.setLong(updatedColumns + 1 + keyColumns.length + 1, hashes[r]);
+			}
+			updateStatement.addBatch();
+		}
+		int[] updateCounts = updateStatement.executeBatch();
+		if (updateCounts.length != count) {
+			throw new SQLException("Batch of " + count + " updates returned " + updateCounts.length + " update counts");
+		}
+		List<Integer> notUpdated = new ArrayList<Integer>();
+		for (int r = 0; r < count; r++) {
+			if (updateCounts[r] == Statement.EXECUTE_FAILED) {
+				throw new SQLException("Row " + (r + 1) + " of batch of " + count + " rows could not be updated");
+			}
+			if (updateCounts[r] == 0) {
+				notUpdated.add(lastRows.get(r));
+			} else {
+				updatedRows++;
+			}
+		}
+		int inserts = 0;
+		for (Integer r : notUpdated) {
+			rows.replayRow(insertStatement, r.intValue());
+			if (hashIndex > 0) {
+				insertStatement.setLong(hashIndex, hashes[r.intValue()]);
+			}
+			insertStatement.addBatch();
+			inserts++;
+		}
+		if (inserts > 0) {
+			DbCreationUtil.checkUpdateCounts(insertStatement.executeBatch(), inserts);
+			insertedRows += inserts;
+		}
+	}
+
+	/**
+	 * Look up the stored hashes of the keys of the rows, with one query for every probeSize rows. The hash covers 
+	 * all values of the row in the file, the key columns too, so a row whose hash is stored is in the table as it 
+	 * is and is not written. The other rows changed or are new: a row that is not updated is new and is inserted.
+	 * 
+	 * @param lastRows the rows of the chunk that are applied.
+	 * @return the rows whose hash is not stored.
+	 * @throws SQLException
+	 */
+	private List<Integer> findChangedRows(List<Integer> lastRows) throws SQLException {
+		Set<Long> storedHashes = new HashSet<Long>(lastRows.size() * 2);
+		for (int from = 0; from < lastRows.size(); from += probeSize) {
+			for (int i = 0; i < probeSize; i++) {
+				// the last key is repeated to fill the query.
+				int r = lastRows.get(Math.min(from + i, lastRows.size() - 1)).intValue();
+				rows.replayRow(probeStatement, r, keyIndexes, i * keyColumns.length);
+			}
+			ResultSet resultSet = probeStatement.executeQuery();
+			try {
+				while (resultSet.next()) {
+					long hash = resultSet.getLong(1);
+					if (!resultSet.wasNull()) {
+						storedHashes.add(Long.valueOf(hash));
+					}
+				}
+			} finally {
+				resultSet.close();
+			}
+		}
+		List<Integer> changedRows = new ArrayList<Integer>(lastRows.size());
+		for (Integer row : lastRows) {
+			if (storedHashes.contains(Long.valueOf(hashes[row.intValue()]))) {
+				unchangedRows++;
+			} else {
+				changedRows.add(row);
+			}
+		}
+		return changedRows;
+	}
+
+	/**
+	 * Forget the rows of the current chunk.
+	 */
+	void clear() {
+		rows.clear();
+	}
+
+	/**
+	 * Close the statements and log the number of inserted, updated and unchanged rows.
+	 * 
+	 * @throws SQLException
+	 */
+	void close() throws SQLException {
+		if (log.isInfoEnabled()) {
+			log.info("Upsert into " + tableName + ": " + insertedRows + " inserted, " + updatedRows + (mergeStatement != null ? " merged, " : " updated, ")
+					+ unchangedRows + " unchanged, " + replacedRows + " replaced by a later row with the same key");
+		}
+		rows.clear();
+		try {
+			if (mergeStatement != null) {
+				mergeStatement.close();
+			}
+			if (updateStatement != null) {
+				updateStatement.close();
+			}
+			if (probeStatement != null) {
+				probeStatement.close();
+			}
+		} finally {
+			if (insertStatement != null) {
+				insertStatement.close();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of rows that were inserted (not when MERGE is used).
+	 */
+	long getInsertedRows() {
+		return insertedRows;
+	}
+
+	/**
+	 * @return the number of rows that were updated, or merged when MERGE is used.
+	 */
+	long getUpdatedRows() {
+		return updatedRows;
+	}
+
+	/**
+	 * @return the number of rows that were not written because their hash did not change.
+	 */
+	long getUnchangedRows() {
+		return unchangedRows;
+	}
+}
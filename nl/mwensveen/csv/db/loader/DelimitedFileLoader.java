@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.loader;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.log4j.Logger;
+
+import nl.mwensveen.csv.db.loader.api.BulkLoader;
+
+/**
+ * Base class for loaders that import a file. The rows are written to a temporary file in UTF-8, 
+ * comma separated, with double quotes as character delimiter. An empty field is a NULL value, an empty 
+ * string is written as "". The subclass imports the file in importFile(). 
+ * A loader for a driver with a COPY ... FROM STDIN style api can extend this class as well, and stream 
+ * the file to the driver in importFile().
+ * 
+ * @author Micha Wensveen
+ */
+public abstract class DelimitedFileLoader implements BulkLoader {
+	private Logger log = Logger.getLogger(DelimitedFileLoader.class);
+	private String tableName;
+	private String columnNames;
+	private File file;
+	private Writer writer;
+	private int rows;
+
+	/**
+	 * Create the temporary file for the rows. The table and column names are converted to upper case, 
+	 * the way the database stores names that are not quoted.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#start(java.lang.String, java.lang.String[])
+	 */
+	public void start(String tableName, String[] columnNames) throws SQLException {
+		discard();
+		this.tableName = tableName.toUpperCase();
+		StringBuilder names = new StringBuilder();
+		for (int i = 0; i < columnNames.length; i++) {
+			if (i > 0) {
+				names.append(",");
+			}
+			names.append(columnNames[i].toUpperCase());
+		}
+		this.columnNames = names.toString();
+		rows = 0;
+		try {
+			file = File.createTempFile("csvdb", ".del");
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), 64 * 1024);
+		} catch (IOException e) {
+			throw new SQLException("Cannot create file for the import", e);
+		}
+	}
+
+	/**
+	 * Write a row to the import file.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#addRow(java.lang.String[])
+	 */
+	public void addRow(String[] values) throws SQLException {
+		try {
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeValue(values[i]);
+			}
+			writer.write('\n');
+		} catch (IOException e) {
+			throw new SQLException("Cannot write to the file for the import", e);
+		}
+		rows++;
+	}
+
+	private void writeValue(String value) throws IOException {
+		if (value == null) {
+			// an empty field is imported as NULL.
+			return;
+		}
+		int length = value.length();
+		boolean delimit = length == 0 || Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(length - 1));
+		for (int i = 0; i < length && !delimit; i++) {
+			char c = value.charAt(i);
+			delimit = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!delimit) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+
+	/**
+	 * Import the rows that were written to the file and remove the file.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#load(java.sql.Connection)
+	 */
+	public int load(Connection connection) throws SQLException {
+		try {
+			closeWriter();
+			if (rows == 0) {
+				return 0;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Importing " + rows + " rows into " + tableName + " from " + file);
+			}
+			return importFile(connection, file);
+		} finally {
+			discard();
+		}
+	}
+
+	/**
+	 * Import the file into the table.
+	 * 
+	 * @param connection the connection to the database.
+	 * @param importFile the file with the rows.
+	 * @return the number of rows that were imported.
+	 * @throws SQLException
+	 */
+	protected abstract int importFile(Connection connection, File importFile) throws SQLException;
+
+	/**
+	 * Remove the import file without importing it.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#discard()
+	 */
+	public void discard() {
+		try {
+			closeWriter();
+		} catch (SQLException e) {
+			log.warn("Error closing the file for the import", e);
+		}
+		if (file != null && file.exists() && !file.delete()) {
+			log.warn("Cannot delete " + file);
+		}
+		file = null;
+	}
+
+	private void closeWriter() throws SQLException {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException e) {
+			throw new SQLException("Cannot write to the file for the import", e);
+		} finally {
+			writer = null;
+		}
+	}
+
+	/**
+	 * @return the name of the table in upper case.
+	 */
+	protected String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * @return the names of the columns in upper case, separated by a comma.
+	 */
+	protected String getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * @return the number of rows written to the file.
+	 */
+	protected int getRowCount() {
+		return rows;
+	}
+}
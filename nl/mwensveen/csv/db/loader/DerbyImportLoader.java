@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.loader;
+
+import java.io.File;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Loads rows into a table of an embedded Derby database with the system procedure SYSCS_UTIL.SYSCS_IMPORT_DATA.
+ * This bypasses the SQL layer for every row, and when the table is empty Derby can use its bulk insert path.
+ * 
+ * @author Micha Wensveen
+ */
+public class DerbyImportLoader extends DelimitedFileLoader {
+	private static final String DERBY_EMBEDDED_PREFIX = "jdbc:derby:";
+	private static final String DERBY_CLIENT_PREFIX = "jdbc:derby://";
+
+	/**
+	 * The import file must be readable by the database, so only an embedded Derby database is supported.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#supports(java.lang.String)
+	 */
+	public boolean supports(String jdbcUrl) {
+		return jdbcUrl != null && jdbcUrl.startsWith(DERBY_EMBEDDED_PREFIX) && !jdbcUrl.startsWith(DERBY_CLIENT_PREFIX);
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.loader.DelimitedFileLoader#importFile(java.sql.Connection, java.io.File)
+	 */
+	@Override
+	protected int importFile(Connection connection, File importFile) throws SQLException {
+		CallableStatement call = connection.prepareCall("CALL SYSCS_UTIL.SYSCS_IMPORT_DATA (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+		try {
+			call.setString(1, null);
+			call.setString(2, getTableName());
+			call.setString(3, getColumnNames());
+			call.setString(4, null);
+			call.setString(5, importFile.getAbsolutePath());
+			call.setString(6, ",");
+			call.setString(7, "\"");
+			call.setString(8, "UTF-8");
+			call.setShort(9, (short) 0);
+			call.execute();
+		} finally {
+			call.close();
+		}
+		return getRowCount();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.loader;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads rows into a table of an embedded H2 database with 
+ * <code>INSERT INTO table (columns) SELECT * FROM CSVREAD(file, columns, options)</code>.
+ * The file is read by the database itself, in one statement.
+ * 
+ * @author Micha Wensveen
+ */
+public class H2CsvReadLoader extends DelimitedFileLoader {
+	private static final String H2_PREFIX = "jdbc:h2:";
+	private static final String H2_TCP_PREFIX = "jdbc:h2:tcp:";
+	private static final String H2_SSL_PREFIX = "jdbc:h2:ssl:";
+
+	/**
+	 * The import file must be readable by the database, so a H2 server (tcp or ssl) is not supported.
+	 * 
+	 * @see nl.mwensveen.csv.db.loader.api.BulkLoader#supports(java.lang.String)
+	 */
+	public boolean supports(String jdbcUrl) {
+		return jdbcUrl != null && jdbcUrl.startsWith(H2_PREFIX) && !jdbcUrl.startsWith(H2_TCP_PREFIX) && !jdbcUrl.startsWith(H2_SSL_PREFIX);
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.loader.DelimitedFileLoader#importFile(java.sql.Connection, java.io.File)
+	 */
+	@Override
+	protected int importFile(Connection connection, File importFile) throws SQLException {
+		StringBuilder sql = new StringBuilder("INSERT INTO ");
+		sql.append(getTableName());
+		sql.append(" (");
+		sql.append(getColumnNames());
+		sql.append(") SELECT * FROM CSVREAD(");
+		appendLiteral(sql, importFile.getAbsolutePath());
+		sql.append(", ");
+		appendLiteral(sql, getColumnNames());
+		sql.append(", 'charset=UTF-8 fieldSeparator=, fieldDelimiter=\"')");
+		Statement statement = connection.createStatement();
+		try {
+			return statement.executeUpdate(sql.toString());
+		} finally {
+			statement.close();
+		}
+	}
+
+	private void appendLiteral(StringBuilder sql, String value) {
+		sql.append('\'');
+		sql.append(value.replace("'", "''"));
+		sql.append('\'');
+	}
+}
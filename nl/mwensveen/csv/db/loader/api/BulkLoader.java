@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.loader.api;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Interface for loaders that use a bulk import facility of a database instead of insert statements.
+ * The DbCreationUtil converts the rows with the DbTypes and hands the values to the loader, which loads them 
+ * when the DbCreationUtil is finished. A BulkLoader is used for one load at a time.
+ * 
+ * @author mwensveen
+ * 
+ */
+public interface BulkLoader {
+	/**
+	 * @param jdbcUrl String
+	 * @return true when this loader can load into the database of the jdbcUrl.
+	 */
+	boolean supports(String jdbcUrl);
+
+	/**
+	 * Start a new load.
+	 * @param tableName the table to load into.
+	 * @param columnNames the columns in the order of the values of a row.
+	 * @throws SQLException
+	 */
+	void start(String tableName, String[] columnNames) throws SQLException;
+
+	/**
+	 * Add a row to the load.
+	 * @param values the values of the row as converted by the DbTypes, without the quotes of sql literals. 
+	 * A value is <code>null</code> for a NULL value.
+	 * @throws SQLException
+	 */
+	void addRow(String[] values) throws SQLException;
+
+	/**
+	 * Load the rows that were added since start(). 
+	 * @param connection the connection to the database.
+	 * @return the number of rows that were loaded.
+	 * @throws SQLException
+	 */
+	int load(Connection connection) throws SQLException;
+
+	/**
+	 * Discard the rows that were added since start(), without loading them.
+	 */
+	void discard();
+}
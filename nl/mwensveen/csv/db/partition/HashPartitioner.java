@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.partition;
+
+import nl.mwensveen.csv.CellConverter;
+import nl.mwensveen.csv.db.partition.api.Partitioner;
+
+/**
+ * Partitioner that spreads the rows over the shards by the hash of the value. The hash is String.hashCode(), so 
+ * a value ends up in the same shard in every load. NULL values go to the first shard.
+ * 
+ * @author mwensveen
+ * 
+ */
+public class HashPartitioner implements Partitioner {
+
+	/**
+	 * The value is hashed as it is in the file, nothing to do.
+	 * @see nl.mwensveen.csv.db.partition.api.Partitioner#init(nl.mwensveen.csv.CellConverter)
+	 */
+	public void init(CellConverter cellConverter) {
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.partition.api.Partitioner#partition(java.lang.String, int)
+	 */
+	public int partition(String value, int shards) {
+		if (value == null) {
+			return 0;
+		}
+		return (value.hashCode() & Integer.MAX_VALUE) % shards;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.partition;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+import nl.mwensveen.csv.CellConverter;
+import nl.mwensveen.csv.db.partition.api.Partitioner;
+
+/**
+ * Partitioner that divides the rows over the shards by numeric ranges of the value. Shard i gets the values below 
+ * upperBounds[i] (and at or above upperBounds[i - 1]), the last shard gets the values at or above the last bound. 
+ * So there is one bound less than there are shards. NULL values go to the first shard.
+ * The values and the bounds are numbers as in the file: they are read with the decimalPoint of the CSVConfig, 
+ * like the CSVResultSet does, so with a decimalPoint ',' a bound is written as e.g. "1.000,50".
+ * 
+ * @author mwensveen
+ * 
+ */
+public class RangePartitioner implements Partitioner {
+	private final String[] bounds;
+	private BigDecimal[] upperBounds;
+	private CellConverter cellConverter;
+
+	/**
+	 * @param upperBounds the exclusive upper bound of every shard but the last, in ascending order.
+	 */
+	public RangePartitioner(String... upperBounds) {
+		super();
+		this.bounds = upperBounds;
+	}
+
+	/**
+	 * Read the upperBounds with the CellConverter.
+	 * @see nl.mwensveen.csv.db.partition.api.Partitioner#init(nl.mwensveen.csv.CellConverter)
+	 */
+	public void init(CellConverter cellConverter) throws SQLException {
+		this.cellConverter = cellConverter;
+		upperBounds = new BigDecimal[bounds.length];
+		for (int i = 0; i < bounds.length; i++) {
+			upperBounds[i] = toNumber(bounds[i]);
+			if (upperBounds[i] == null) {
+				throw new SQLException("RangePartitioner has an empty upperBound");
+			}
+			if (i > 0 && upperBounds[i].compareTo(upperBounds[i - 1]) <= 0) {
+				throw new SQLException("The upperBounds of the RangePartitioner must be ascending: " + bounds[i]);
+			}
+		}
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.partition.api.Partitioner#partition(java.lang.String, int)
+	 */
+	public int partition(String value, int shards) throws SQLException {
+		if (upperBounds == null) {
+			throw new SQLException("RangePartitioner is not initialized");
+		}
+		if (upperBounds.length != shards - 1) {
+			throw new SQLException("RangePartitioner has " + upperBounds.length + " upperBounds for " + shards + " shards");
+		}
+		BigDecimal number = toNumber(value);
+		if (number == null) {
+			return 0;
+		}
+		// binary search for the first bound that is above the number.
+		int low = 0;
+		int high = upperBounds.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (number.compareTo(upperBounds[middle]) < 0) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the number, read with the decimalPoint of the CSVConfig, or null when the value is empty.
+	 * @throws SQLException when the value is not a number.
+	 */
+	private BigDecimal toNumber(String value) throws SQLException {
+		if (value == null || value.trim().length() == 0) {
+			return null;
+		}
+		try {
+			// not toBigDecimal(), that goes through a double and loses the digits of large numbers.
+			return new BigDecimal(cellConverter.normalizeNumber(value.trim()));
+		} catch (NumberFormatException e) {
+			throw new SQLException("Cannot partition the non numeric value " + value);
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.partition.api;
+
+import java.sql.SQLException;
+
+import nl.mwensveen.csv.CellConverter;
+
+/**
+ * Interface for the functions that determine the shard of a row in a sharded load (see DbConfig.addShard()), 
+ * based on the value of the partitionColumn.
+ * 
+ * @author mwensveen
+ * 
+ */
+public interface Partitioner {
+	/**
+	 * Called once per load, before the first row is partitioned.
+	 * 
+	 * @param cellConverter the CellConverter of the ResultSet, that reads numbers and dates as the CSVConfig says.
+	 * @throws SQLException when the partitioner cannot be used with the CSVConfig.
+	 */
+	void init(CellConverter cellConverter) throws SQLException;
+
+	/**
+	 * @param value the value of the partitionColumn as in the file, can be <code>null</code>.
+	 * @param shards the number of shards.
+	 * @return the index (starting with 0) of the shard the row is loaded into.
+	 * @throws SQLException when the value cannot be partitioned.
+	 */
+	int partition(String value, int shards) throws SQLException;
+}
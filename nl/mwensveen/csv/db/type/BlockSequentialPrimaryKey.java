@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.type;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nl.mwensveen.csv.db.type.api.AppendingDbType;
+
+/**
+ * This PrimariyKeyDbType creates a BIGINT primary key that is a numeric sequence, like the SequentialPrimaryKey, 
+ * but can be shared by threads that insert at the same time (e.g. the shards of a sharded load). Every thread takes 
+ * a block of keys from a shared high-water mark and hands them out without synchronization. So the keys are unique, 
+ * but the keys of different threads are interleaved in blocks and the unused rest of a block is skipped.
+ * The high-water mark can be kept in a file, so the next load continues after the keys of this one.
+ * @author mwensveen
+ *
+ */
+public class BlockSequentialPrimaryKey implements AppendingDbType {
+	private static final int DEFAULT_BLOCK_SIZE = 1000;
+	/** Width of the high-water mark in the file, it is overwritten in place. */
+	private static final int MARK_WIDTH = 20;
+	private final AtomicLong highWaterMark;
+	private final int blockSize;
+	private final File highWaterMarkFile;
+	/** The high-water mark that is in the file. */
+	private long writtenMark;
+	/** The next key and the end (exclusive) of the block of a thread. */
+	private final ThreadLocal<long[]> block = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[2];
+		}
+	};
+
+	public BlockSequentialPrimaryKey() {
+		this(1, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * @param startKey the first key.
+	 * @param blockSize the number of keys a thread takes at once.
+	 */
+	public BlockSequentialPrimaryKey(long startKey, int blockSize) {
+		super();
+		this.highWaterMark = new AtomicLong(startKey);
+		this.blockSize = Math.max(1, blockSize);
+		this.highWaterMarkFile = null;
+	}
+
+	/**
+	 * Continue with the keys after the high-water mark in the file, or with 1 when the file does not exist yet. 
+	 * The file is updated every time a block is taken, before its keys are used.
+	 * @param highWaterMarkFile file with the first key that was not handed out.
+	 * @param blockSize the number of keys a thread takes at once.
+	 * @throws IOException when the file cannot be read.
+	 */
+	public BlockSequentialPrimaryKey(File highWaterMarkFile, int blockSize) throws IOException {
+		super();
+		this.highWaterMark = new AtomicLong(readHighWaterMark(highWaterMarkFile));
+		this.blockSize = Math.max(1, blockSize);
+		this.highWaterMarkFile = highWaterMarkFile;
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.type.api.DbType#getInsertValue(int, java.sql.ResultSet)
+	 */
+	public String getInsertValue(int columnNumber, ResultSet resultSet) throws SQLException {
+		StringBuilder sql = new StringBuilder();
+		appendInsertValue(sql, columnNumber, resultSet);
+		return sql.toString();
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.type.api.AppendingDbType#appendInsertValue(java.lang.StringBuilder, int, java.sql.ResultSet)
+	 */
+	public void appendInsertValue(StringBuilder sql, int columnNumber, ResultSet resultSet) throws SQLException {
+		sql.append(getValue());
+	}
+
+	private long getValue() throws SQLException {
+		long[] keys = block.get();
+		if (keys[0] >= keys[1]) {
+			long start = highWaterMark.getAndAdd(blockSize);
+			if (highWaterMarkFile != null) {
+				writeHighWaterMark();
+			}
+			keys[0] = start;
+			keys[1] = start + blockSize;
+		}
+		return keys[0]++;
+	}
+
+	/**
+	 * @return the first key that is not taken by a thread yet.
+	 */
+	public long getHighWaterMark() {
+		return highWaterMark.get();
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.type.api.DbType#getSqlType()
+	 */
+	public String getSqlType() {
+		return "BIGINT PRIMARY KEY";
+	}
+
+	/**
+	 * @see nl.mwensveen.csv.db.type.api.DbType#insertIntoPreparedStatement(PreparedStatement, int, ResultSet, int)
+	 */
+	public void insertIntoPreparedStatement(PreparedStatement preparedStatement, int i, ResultSet resultSet, int j) throws SQLException {
+		preparedStatement.setLong(i, getValue());
+	}
+
+	private static long readHighWaterMark(File file) throws IOException {
+		if (!file.exists()) {
+			return 1;
+		}
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			String mark = in.readLine();
+			if (mark == null || mark.trim().length() == 0) {
+				return 1;
+			}
+			return Long.parseLong(mark.trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("No high-water mark in " + file + ": " + e.getMessage());
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Overwrite the high-water mark in the file with the current one, which covers the blocks of all threads, 
+	 * unless another thread has already written it.
+	 */
+	private synchronized void writeHighWaterMark() throws SQLException {
+		long mark = highWaterMark.get();
+		if (mark <= writtenMark) {
+			return;
+		}
+		StringBuilder line = new StringBuilder(Long.toString(mark));
+		while (line.length() < MARK_WIDTH) {
+			line.append(' ');
+		}
+		line.append('\n');
+		try {
+			RandomAccessFile out = new RandomAccessFile(highWaterMarkFile, "rwd");
+			try {
+				out.seek(0);
+				out.writeBytes(line.toString());
+			} finally {
+				out.close();
+			}
+			writtenMark = mark;
+		} catch (IOException e) {
+			throw new SQLException("Error writing the high-water mark to " + highWaterMarkFile, e);
+		}
+	}
+}
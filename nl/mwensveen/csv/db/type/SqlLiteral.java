@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.type;
+
+/**
+ * Writes values as sql string literals. Used by the string types for the <code>insert</code> statement.
+ * 
+ * @author mwensveen
+ *
+ */
+public final class SqlLiteral {
+
+	private SqlLiteral() {
+		super();
+	}
+
+	/**
+	 * Append the value as a sql string literal: between single quotes, and with every single quote in the 
+	 * value doubled. The value is copied in one pass. A null value is appended as NULL.
+	 * @param sql StringBuilder to append to.
+	 * @param value String
+	 */
+	public static void appendString(StringBuilder sql, String value) {
+		if (value == null) {
+			sql.append("NULL");
+			return;
+		}
+		sql.append('\'');
+		int start = 0;
+		int quote = value.indexOf('\'');
+		while (quote >= 0) {
+			// copy up to and including the quote, and add the second quote.
+			sql.append(value, start, quote + 1);
+			sql.append('\'');
+			start = quote + 1;
+			quote = value.indexOf('\'', start);
+		}
+		sql.append(value, start, value.length());
+		sql.append('\'');
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.db.type.api;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import nl.mwensveen.csv.CellConverter;
+
+/**
+ * Interface for types that can bind a cell of the csv-file, as it was parsed, directly to a PreparedStatement 
+ * instead of getting the value from the ResultSet. The DbCreationUtil uses this, when available, for the rows of 
+ * the CSVParser; other types are bound with insertIntoPreparedStatement().
+ * 
+ * @author mwensveen
+ * 
+ */
+public interface CellBinder extends DbType {
+	/**
+	 * Bind the value of the cell into the given PreparedStatement. This must bind the same value as 
+	 * insertIntoPreparedStatement() does for the cell.
+	 * @param preparedStatement
+	 * @param preparedStatementIndex parameterIndex
+	 * @param cell the cell as in the file, <code>null</code> or empty for a NULL value.
+	 * @param converter converts the cell with the rules of the CSVConfig.
+	 * @throws SQLException
+	 */
+	void bindCell(PreparedStatement preparedStatement, int preparedStatementIndex, CharSequence cell, CellConverter converter) throws SQLException;
+}
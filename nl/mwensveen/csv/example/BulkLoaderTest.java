@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.example;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nl.mwensveen.csv.CSVConfig;
+import nl.mwensveen.csv.CSVParser;
+import nl.mwensveen.csv.CSVParserException;
+import nl.mwensveen.csv.db.DbConfig;
+import nl.mwensveen.csv.db.loader.DerbyImportLoader;
+import nl.mwensveen.csv.db.loader.H2CsvReadLoader;
+import nl.mwensveen.csv.db.loader.api.BulkLoader;
+import nl.mwensveen.csv.db.type.CharDbType;
+import nl.mwensveen.csv.db.type.DateDbType;
+import nl.mwensveen.csv.db.type.DecimalDbType;
+import nl.mwensveen.csv.db.type.IntegerDbType;
+import nl.mwensveen.csv.db.type.VarcharDbType;
+import nl.mwensveen.csv.db.type.api.DbType;
+
+/**
+ * Check the BulkLoaders against embedded databases: a file is loaded with the bulk loader into one table and with 
+ * a PreparedStatement into another table, and the rows of both tables are compared. 
+ * The file has quotes, empty cells, separators and a line break inside cells. 
+ * Needs derby.jar and h2.jar on the classpath, an argument "derby" or "h2" checks one database.
+ * @author mwensveen
+ *
+ */
+public class BulkLoaderTest {
+	private static final String COLUMNS = "id, text, code, amount, quantity, startdate";
+
+	public static void main(String[] args) throws IOException, SQLException, CSVParserException {
+		File file = createFile();
+		boolean equal = true;
+		if (args.length == 0 || args[0].equals("derby")) {
+			equal &= check(file, "jdbc:derby:memory:bulk;create=true", new DerbyImportLoader());
+		}
+		if (args.length == 0 || args[0].equals("h2")) {
+			// keep the memory database when the connection of the load is closed.
+			equal &= check(file, "jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1", new H2CsvReadLoader());
+		}
+		System.out.println(equal ? "The bulk loaders load the same rows as the PreparedStatement" : "The bulk loaders differ");
+		if (!equal) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Load the file with the loader and with a PreparedStatement, and compare the rows.
+	 * @return true when the rows are equal.
+	 */
+	private static boolean check(File file, String jdbcUrl, BulkLoader loader) throws SQLException, CSVParserException {
+		DbConfig bulkConfig = createDBConfig(jdbcUrl, "BulkData");
+		bulkConfig.setUseBulkLoader(true);
+		bulkConfig.setBulkLoader(loader);
+		new CSVParser(createCSVConfig(), bulkConfig).parseToDb(file.getPath());
+
+		DbConfig insertConfig = createDBConfig(jdbcUrl, "InsertData");
+		insertConfig.setUsePreparedStatement(true);
+		new CSVParser(createCSVConfig(), insertConfig).parseToDb(file.getPath());
+
+		List<String> bulkRows = readRows(jdbcUrl, "BulkData");
+		List<String> insertRows = readRows(jdbcUrl, "InsertData");
+		System.out.println(loader.getClass().getSimpleName() + ": " + bulkRows.size() + " rows, " + insertRows.size() + " inserted");
+		boolean equal = bulkRows.size() == insertRows.size();
+		for (int i = 0; i < Math.max(bulkRows.size(), insertRows.size()); i++) {
+			String bulkRow = i < bulkRows.size() ? bulkRows.get(i) : null;
+			String insertRow = i < insertRows.size() ? insertRows.get(i) : null;
+			if (bulkRow == null || !bulkRow.equals(insertRow)) {
+				System.out.println("  loaded   " + bulkRow);
+				System.out.println("  inserted " + insertRow);
+				equal = false;
+			}
+		}
+		return equal;
+	}
+
+	private static DbConfig createDBConfig(String jdbcUrl, String tableName) {
+		DbConfig config = new DbConfig();
+		Map<String, DbType> dbTypes = new HashMap<String, DbType>();
+		config.setDataTypes(dbTypes);
+		dbTypes.put("id", new IntegerDbType());
+		dbTypes.put("text", new VarcharDbType());
+		dbTypes.put("code", new CharDbType());
+		dbTypes.put("amount", new DecimalDbType(9, 2));
+		dbTypes.put("quantity", new IntegerDbType());
+		dbTypes.put("startdate", new DateDbType());
+		config.setJdbcUrl(jdbcUrl);
+		config.setTableName(tableName);
+		config.setCreateTable(true);
+		return config;
+	}
+
+	private static CSVConfig createCSVConfig() {
+		CSVConfig config = new CSVConfig();
+		config.setDecimalPoint(',');
+		config.setSeperator(';');
+		config.setDatePattern("yyyyMMdd");
+		config.setStartWithMetaDataRow(true);
+		return config;
+	}
+
+	/**
+	 * @return a file with the cells that a bulk loader must not change.
+	 * @throws IOException
+	 */
+	private static File createFile() throws IOException {
+		File file = File.createTempFile("bulk", ".csv");
+		file.deleteOnExit();
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write("id;text;code;amount;quantity;startdate\n");
+			writer.write("1;plain;a;1,50;10;20260101\n");
+			writer.write("2;\"with \"\"quotes\"\"\";b;2,00;20;20260102\n");
+			writer.write("3;;c;3,00;;20260103\n");
+			writer.write("4;\"comma, inside\";d;4;40;20260104\n");
+			writer.write("5;\"semi;colon\";e;;50;20260105\n");
+			writer.write("6;\" leading and trailing \";;6;;\n");
+			writer.write("7;\"two\nlines\";g;7;70;20260107\n");
+			writer.write("8;it's;';8;80;20260108\n");
+			writer.write("9;\"\";\"\"\"\";9;;20260109\n");
+			writer.write("10;\"\"\"\";j;10;100;20260110\n");
+			writer.write("11;NULL;k;11;110;20260111\n");
+			writer.write("12;caf\u00e9 \u20ac;l;12;;20260112\n");
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	/**
+	 * @return the rows of the table, ordered by id, as text with the values between brackets.
+	 */
+	private static List<String> readRows(String jdbcUrl, String tableName) throws SQLException {
+		List<String> rows = new ArrayList<String>();
+		Connection connection = DriverManager.getConnection(jdbcUrl);
+		try {
+			Statement statement = connection.createStatement();
+			ResultSet rs = statement.executeQuery("select " + COLUMNS + " from " + tableName + " order by id");
+			int columns = rs.getMetaData().getColumnCount();
+			while (rs.next()) {
+				StringBuilder row = new StringBuilder();
+				for (int i = 1; i <= columns; i++) {
+					Object value = rs.getObject(i);
+					row.append(value == null ? "NULL" : "[" + value + "]");
+				}
+				rows.add(row.toString());
+			}
+			rs.close();
+			statement.close();
+		} finally {
+			connection.close();
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008, Micha Wensveen (mwensveen.nl)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ * 	  this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ * 	  this list of conditions and the following disclaimer in the documentation
+ * 	  and/or other materials provided with the distribution.
+ *     * Neither the name of mwensveen.nl nor the names of its contributors may be
+ * 	  used to endorse or promote products derived from this software without
+ * 	  specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package nl.mwensveen.csv.example;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import nl.mwensveen.csv.CSVConfig;
+import nl.mwensveen.csv.CSVParser;
+import nl.mwensveen.csv.CSVParserException;
+import nl.mwensveen.csv.db.DbConfig;
+import nl.mwensveen.csv.db.partition.RangePartitioner;
+import nl.mwensveen.csv.db.type.DecimalDbType;
+import nl.mwensveen.csv.db.type.IntegerDbType;
+import nl.mwensveen.csv.db.type.VarcharDbType;
+import nl.mwensveen.csv.db.type.api.DbType;
+
+/**
+ * Show how a file is loaded into several shards, here three embedded Derby databases in memory. 
+ * The rows are divided over the shards by the amount, with a RangePartitioner. Prints the rows per shard.
+ * Without an argument a file with 3000 rows (id;name;amount, amounts from 0,50 to 2.999,50) is created.
+ * Needs derby.jar on the classpath.
+ * @author mwensveen
+ *
+ */
+public class ShardedLoadTest {
+	private static final int SHARDS = 3;
+
+	public static void main(String[] args) throws IOException, SQLException, CSVParserException {
+		File file = args.length > 0 ? new File(args[0]) : createFile(3000);
+
+		DbConfig dbConfig = new DbConfig();
+		dbConfig.setPartitionColumn("amount");
+		// Dutch style, the bounds are written as the amounts in the file.
+		dbConfig.setPartitioner(new RangePartitioner("1.000,00", "2.000,00"));
+		for (int i = 1; i <= SHARDS; i++) {
+			dbConfig.addShard(createShardConfig(i));
+		}
+		CSVParser csvParser = new CSVParser(createCSVConfig(), dbConfig);
+		System.out.println("Start load: " + new Date());
+		csvParser.parseToDb(file.getPath());
+		System.out.println("End load: " + new Date());
+
+		for (int i = 1; i <= SHARDS; i++) {
+			printShard(i);
+		}
+	}
+
+	private static DbConfig createShardConfig(int shard) {
+		DbConfig config = new DbConfig();
+		Map<String, DbType> dbTypes = new HashMap<String, DbType>();
+		config.setDataTypes(dbTypes);
+		dbTypes.put("id", new IntegerDbType());
+		dbTypes.put("name", new VarcharDbType());
+		dbTypes.put("amount", new DecimalDbType(9, 2));
+		config.setJdbcUrl(getJdbcUrl(shard));
+		config.setTableName("Data");
+		config.setCreateTable(true);
+		config.setBatchSize(100);
+		return config;
+	}
+
+	private static String getJdbcUrl(int shard) {
+		return "jdbc:derby:memory:shard" + shard + ";create=true";
+	}
+
+	private static CSVConfig createCSVConfig() {
+		CSVConfig config = new CSVConfig();
+		// Dutch style, use a ',' as decimal point
+		config.setDecimalPoint(',');
+		config.setSeperator(';');
+		config.setStartWithMetaDataRow(true);
+		return config;
+	}
+
+	/**
+	 * Create a file with amounts like 1.234,50.
+	 * @param rows number of rows.
+	 * @return the file, deleted when the JVM exits.
+	 * @throws IOException
+	 */
+	private static File createFile(int rows) throws IOException {
+		File file = File.createTempFile("sharded", ".csv");
+		file.deleteOnExit();
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		try {
+			writer.println("id;name;amount");
+			for (int i = 0; i < rows; i++) {
+				String amount = i >= 1000 ? (i / 1000) + "." + String.valueOf(i % 1000 + 1000).substring(1) : String.valueOf(i);
+				writer.println(i + ";name " + i + ";" + amount + ",50");
+			}
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	/**
+	 * Print the number of rows and the lowest and highest amount of a shard.
+	 * @param shard
+	 * @throws SQLException
+	 */
+	private static void printShard(int shard) throws SQLException {
+		Connection connection = DriverManager.getConnection(getJdbcUrl(shard));
+		try {
+			Statement statement = connection.createStatement();
+			ResultSet rs = statement.executeQuery("select count(*), min(amount), max(amount) from Data");
+			rs.next();
+			System.out.println("Shard " + shard + ": " + rs.getInt(1) + " rows, amount " + rs.getBigDecimal(2) + " - " + rs.getBigDecimal(3));
+			rs.close();
+			statement.close();
+		} finally {
+			connection.close();
+		}
+	}
+}